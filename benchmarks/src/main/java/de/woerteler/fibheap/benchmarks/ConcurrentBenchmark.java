@@ -0,0 +1,154 @@
+package de.woerteler.fibheap.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import de.woerteler.fibheap.*;
+
+/**
+ * Throughput of the hold model on a single queue shared by all benchmark threads: each
+ * operation extracts the (approximate) minimum and inserts a new entry with a larger key.
+ * The thread count is set with JMH's {@code -t} option, {@link #main(String[])} runs the
+ * benchmark for 1 to 64 threads.
+ * @author Leo Woerteler
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentBenchmark {
+  /** Number of entries in the queue. */
+  @Param({ "100000" })
+  public int size;
+  /** Queue implementation. */
+  @Param({ "lockedFibHeap", "fibBlockingQueue", "multiQueue", "skipListQueue" })
+  public String engine;
+
+  /** The shared queue. */
+  private Engine queue;
+
+  /** Creates and fills the shared queue. */
+  @Setup(Level.Iteration)
+  public void setup() {
+    this.queue = create(this.engine);
+    final Random rnd = new Random(42);
+    for(int i = 0; i < this.size; i++) {
+      this.queue.insert(rnd.nextDouble());
+    }
+  }
+
+  /**
+   * One hold operation on the shared queue.
+   * @return the extracted key
+   */
+  @Benchmark
+  public Double hold() {
+    final Double min = this.queue.extractMin();
+    final double k = min == null ? 0 : min;
+    this.queue.insert(k + ThreadLocalRandom.current().nextDouble());
+    return min;
+  }
+
+  /**
+   * Runs the benchmark for 1, 2, 4, ..., 64 threads.
+   * @param args command line arguments, ignored
+   * @throws RunnerException if a benchmark fails
+   */
+  public static void main(final String[] args) throws RunnerException {
+    for(int t = 1; t <= 64; t *= 2) {
+      new Runner(new OptionsBuilder().include(ConcurrentBenchmark.class.getSimpleName())
+          .threads(t).build()).run();
+    }
+  }
+
+  /**
+   * Creates the queue with the given name.
+   * @param name name of the engine
+   * @return the queue
+   */
+  private static Engine create(final String name) {
+    final Comparator<Double> comp = new Comparator<Double>() {
+      @Override
+      public int compare(final Double o1, final Double o2) {
+        return o1.compareTo(o2);
+      }
+    };
+    switch(name) {
+      case "lockedFibHeap":
+        final FibHeap<Double, Double> heap = FibHeap.newHeap(comp);
+        return new Engine() {
+          @Override
+          public synchronized void insert(final Double k) {
+            heap.insert(k, k);
+          }
+
+          @Override
+          public synchronized Double extractMin() {
+            return heap.isEmpty() ? null : heap.extractMin();
+          }
+        };
+      case "fibBlockingQueue":
+        final FibBlockingQueue<Double> blocking = new FibBlockingQueue<>(comp);
+        return new Engine() {
+          @Override
+          public void insert(final Double k) {
+            blocking.offer(k);
+          }
+
+          @Override
+          public Double extractMin() {
+            return blocking.poll();
+          }
+        };
+      case "multiQueue":
+        final MultiQueue<Double, Double> multi = MultiQueue.newQueue(comp);
+        return new Engine() {
+          @Override
+          public void insert(final Double k) {
+            multi.insert(k, k);
+          }
+
+          @Override
+          public Double extractMin() {
+            return multi.extractMin();
+          }
+        };
+      case "skipListQueue":
+        final SkipListQueue<Double, Double> skip = SkipListQueue.newQueue(comp);
+        return new Engine() {
+          @Override
+          public void insert(final Double k) {
+            skip.insert(k, k);
+          }
+
+          @Override
+          public Double extractMin() {
+            return skip.extractMin();
+          }
+        };
+      default:
+        throw new IllegalArgumentException("unknown engine: " + name);
+    }
+  }
+
+  /** Common interface of the benchmarked queues. */
+  private interface Engine {
+    /**
+     * Inserts a key.
+     * @param k key
+     */
+    void insert(Double k);
+
+    /**
+     * Extracts the minimum.
+     * @return the minimum, {@code null} if the queue was empty
+     */
+    Double extractMin();
+  }
+}
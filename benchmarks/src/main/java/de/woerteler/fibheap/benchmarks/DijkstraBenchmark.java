@@ -0,0 +1,415 @@
+package de.woerteler.fibheap.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.woerteler.fibheap.*;
+import de.woerteler.fibheap.AddressableHeap.Handle;
+
+/**
+ * Mixed workload of inserts, {@code decreaseKey()} and {@code extractMin()} calls in the form
+ * of Dijkstra's algorithm on a random sparse graph. {@link PriorityQueue} and {@link TreeMap}
+ * have no {@code decreaseKey()}, they re-insert vertices and skip outdated entries instead.
+ * @author Leo Woerteler
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DijkstraBenchmark {
+  /** Number of outgoing edges per vertex. */
+  private static final int DEGREE = 8;
+  /** Upper bound for the rounded edge weights. */
+  private static final int MAX_LENGTH = 200;
+
+  /** Number of vertices. */
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  /** Start of each vertex's edges in {@link #targets} and {@link #weights}. */
+  private int[] offsets;
+  /** Edge targets. */
+  private int[] targets;
+  /** Edge weights. */
+  private double[] weights;
+  /** Edge weights rounded to integers, for the monotone integer queues. */
+  private long[] lengths;
+
+  /** Creates a random graph with a Hamiltonian cycle, so that all vertices are reachable. */
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random rnd = new Random(42);
+    final int n = this.size;
+    this.offsets = new int[n + 1];
+    this.targets = new int[n * DEGREE];
+    this.weights = new double[n * DEGREE];
+    this.lengths = new long[n * DEGREE];
+    for(int v = 0; v < n; v++) {
+      final int off = v * DEGREE;
+      this.offsets[v + 1] = off + DEGREE;
+      this.targets[off] = (v + 1) % n;
+      this.weights[off] = 100 * (1 + rnd.nextDouble());
+      for(int i = 1; i < DEGREE; i++) {
+        this.targets[off + i] = rnd.nextInt(n);
+        this.weights[off + i] = 1 + rnd.nextDouble() * 99;
+      }
+      for(int i = 0; i < DEGREE; i++) {
+        this.lengths[off + i] = Math.round(this.weights[off + i]);
+      }
+    }
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link FibHeap}.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double fibHeap() {
+    return this.addressable(FibHeap.<Integer, Double>newComparableHeap());
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link PairingHeap}.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double pairingHeap() {
+    return this.addressable(PairingHeap.<Integer, Double>newComparableHeap());
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link RankPairingHeap} with type-1 ranks.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double rankPairingHeap1() {
+    return this.addressable(RankPairingHeap.<Integer, Double>newComparableHeap(
+        RankPairingHeap.RankRule.TYPE_1));
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link RankPairingHeap} with type-2 ranks.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double rankPairingHeap2() {
+    return this.addressable(RankPairingHeap.<Integer, Double>newComparableHeap(
+        RankPairingHeap.RankRule.TYPE_2));
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link HollowHeap}.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double hollowHeap() {
+    return this.addressable(HollowHeap.<Integer, Double>newComparableHeap());
+  }
+
+  /**
+   * Dijkstra's algorithm using an {@link IndexedDaryHeap} of arity 4.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double indexedDaryHeap() {
+    return this.addressable(IndexedDaryHeap.<Integer, Double>newComparableHeap(4));
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link DoubleFibHeap}.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double doubleFibHeap() {
+    final double[] dists = new double[this.size];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    @SuppressWarnings("unchecked")
+    final DoubleFibHeap.DoubleFibNode<Integer>[] nodes =
+        (DoubleFibHeap.DoubleFibNode<Integer>[]) new DoubleFibHeap.DoubleFibNode<?>[this.size];
+    final DoubleFibHeap<Integer> heap = DoubleFibHeap.newHeap();
+    dists[0] = 0;
+    nodes[0] = heap.insert(0, 0.0);
+
+    double sum = 0;
+    while(!heap.isEmpty()) {
+      final int s = heap.extractMin();
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final double d = dists[s] + this.weights[e];
+        if(d < dists[t]) {
+          dists[t] = d;
+          if(nodes[t] == null) {
+            nodes[t] = heap.insert(t, d);
+          } else {
+            nodes[t].decreaseKey(d);
+          }
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dijkstra's algorithm using an {@link ArrayFibHeap}.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double arrayFibHeap() {
+    final double[] dists = new double[this.size];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    final ArrayFibHeap heap = new ArrayFibHeap(this.size);
+    dists[0] = 0;
+    heap.insert(0, 0.0);
+
+    double sum = 0;
+    while(!heap.isEmpty()) {
+      final int s = heap.extractMin();
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final double d = dists[s] + this.weights[e];
+        if(d < dists[t]) {
+          if(dists[t] == Double.POSITIVE_INFINITY) {
+            heap.insert(t, d);
+          } else {
+            heap.decreaseKey(t, d);
+          }
+          dists[t] = d;
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dijkstra's algorithm using an {@link ArrayDaryHeap} of arity 4.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double arrayDaryHeap() {
+    final double[] dists = new double[this.size];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    final ArrayDaryHeap heap = new ArrayDaryHeap(4, this.size);
+    dists[0] = 0;
+    heap.insert(0, 0.0);
+
+    double sum = 0;
+    while(!heap.isEmpty()) {
+      final int s = heap.extractMin();
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final double d = dists[s] + this.weights[e];
+        if(d < dists[t]) {
+          if(dists[t] == Double.POSITIVE_INFINITY) {
+            heap.insert(t, d);
+          } else {
+            heap.decreaseKey(t, d);
+          }
+          dists[t] = d;
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link RadixHeap} on the rounded edge weights.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public long radixHeap() {
+    final long[] dists = new long[this.size];
+    Arrays.fill(dists, Long.MAX_VALUE);
+    @SuppressWarnings("unchecked")
+    final RadixHeap.RadixNode<Integer>[] nodes =
+        (RadixHeap.RadixNode<Integer>[]) new RadixHeap.RadixNode<?>[this.size];
+    final RadixHeap<Integer> heap = RadixHeap.newHeap();
+    dists[0] = 0;
+    nodes[0] = heap.insert(0, 0);
+
+    long sum = 0;
+    while(!heap.isEmpty()) {
+      final int s = heap.extractMin();
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final long d = dists[s] + this.lengths[e];
+        if(d < dists[t]) {
+          dists[t] = d;
+          if(nodes[t] == null) {
+            nodes[t] = heap.insert(t, d);
+          } else {
+            nodes[t].decreaseKey(d);
+          }
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dial's algorithm using a {@link BucketQueue} on the rounded edge weights.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public long bucketQueue() {
+    final long[] dists = new long[this.size];
+    Arrays.fill(dists, Long.MAX_VALUE);
+    @SuppressWarnings("unchecked")
+    final BucketQueue.BucketNode<Integer>[] nodes =
+        (BucketQueue.BucketNode<Integer>[]) new BucketQueue.BucketNode<?>[this.size];
+    final BucketQueue<Integer> queue = BucketQueue.newQueue(MAX_LENGTH);
+    dists[0] = 0;
+    nodes[0] = queue.insert(0, 0);
+
+    long sum = 0;
+    while(!queue.isEmpty()) {
+      final int s = queue.extractMin();
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final long d = dists[s] + this.lengths[e];
+        if(d < dists[t]) {
+          dists[t] = d;
+          if(nodes[t] == null) {
+            nodes[t] = queue.insert(t, d);
+          } else {
+            nodes[t].decreaseKey(d);
+          }
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link PriorityQueue} with lazy deletion.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double priorityQueue() {
+    final double[] dists = new double[this.size];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    final boolean[] closed = new boolean[this.size];
+    final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    dists[0] = 0;
+    queue.add(new Entry(0, 0));
+
+    double sum = 0;
+    while(!queue.isEmpty()) {
+      final int s = queue.poll().vertex;
+      if(closed[s]) {
+        continue;
+      }
+      closed[s] = true;
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final double d = dists[s] + this.weights[e];
+        if(d < dists[t]) {
+          dists[t] = d;
+          queue.add(new Entry(t, d));
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dijkstra's algorithm using a {@link TreeMap} as an ordered set.
+   * @return sum of all distances
+   */
+  @Benchmark
+  public double treeMap() {
+    final double[] dists = new double[this.size];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    final Entry[] entries = new Entry[this.size];
+    final TreeMap<Entry, Boolean> tree = new TreeMap<>();
+    dists[0] = 0;
+    entries[0] = new Entry(0, 0);
+    tree.put(entries[0], Boolean.TRUE);
+
+    double sum = 0;
+    while(!tree.isEmpty()) {
+      final int s = tree.pollFirstEntry().getKey().vertex;
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final double d = dists[s] + this.weights[e];
+        if(d < dists[t]) {
+          dists[t] = d;
+          if(entries[t] != null) {
+            tree.remove(entries[t]);
+          }
+          entries[t] = new Entry(t, d);
+          tree.put(entries[t], Boolean.TRUE);
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Dijkstra's algorithm using the given {@link AddressableHeap}. Each benchmark runs in its
+   * own fork, so the calls through the interface stay monomorphic.
+   * @param heap empty heap
+   * @return sum of all distances
+   */
+  private double addressable(final AddressableHeap<Integer, Double> heap) {
+    final double[] dists = new double[this.size];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    @SuppressWarnings("unchecked")
+    final Handle<Integer, Double>[] nodes = (Handle<Integer, Double>[]) new Handle<?, ?>[this.size];
+    dists[0] = 0;
+    nodes[0] = heap.insert(0, 0.0);
+
+    double sum = 0;
+    while(!heap.isEmpty()) {
+      final int s = heap.extractMin();
+      sum += dists[s];
+      for(int e = this.offsets[s]; e < this.offsets[s + 1]; e++) {
+        final int t = this.targets[e];
+        final double d = dists[s] + this.weights[e];
+        if(d < dists[t]) {
+          dists[t] = d;
+          if(nodes[t] == null) {
+            nodes[t] = heap.insert(t, d);
+          } else {
+            nodes[t].decreaseKey(d);
+          }
+        }
+      }
+    }
+    return sum;
+  }
+
+  /** Queue entry for the baselines without {@code decreaseKey()}. */
+  private static final class Entry implements Comparable<Entry> {
+    /** Vertex. */
+    final int vertex;
+    /** Tentative distance. */
+    final double dist;
+
+    /**
+     * Constructor.
+     * @param vertex vertex
+     * @param dist tentative distance
+     */
+    Entry(final int vertex, final double dist) {
+      this.vertex = vertex;
+      this.dist = dist;
+    }
+
+    @Override
+    public int compareTo(final Entry o) {
+      final int c = Double.compare(this.dist, o.dist);
+      return c != 0 ? c : Integer.compare(this.vertex, o.vertex);
+    }
+  }
+}
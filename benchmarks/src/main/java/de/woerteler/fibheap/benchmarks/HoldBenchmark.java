@@ -0,0 +1,86 @@
+package de.woerteler.fibheap.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.woerteler.fibheap.*;
+
+/**
+ * Latency benchmark following the classic <em>hold model</em>: each operation extracts the
+ * minimum from a heap of constant size and inserts a new entry with a larger key. The sampled
+ * times show the distribution of single {@code extractMin()} calls including the occasional
+ * large consolidation.
+ * @author Leo Woerteler
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HoldBenchmark {
+  /** Number of entries in the heap. */
+  @Param({ "1000", "100000", "1000000" })
+  public int size;
+
+  /** Source of key increments. */
+  private Random rnd;
+  /** Fibonacci heap. */
+  private FibHeap<Double, Double> heap;
+  /** Priority queue for comparison. */
+  private PriorityQueue<Double> queue;
+  /** Tree map for comparison. */
+  private TreeMap<Double, Double> tree;
+
+  /** Fills the heaps. */
+  @Setup(Level.Trial)
+  public void setup() {
+    this.rnd = new Random(42);
+    this.heap = FibHeap.newComparableHeap();
+    this.queue = new PriorityQueue<>();
+    this.tree = new TreeMap<>();
+    for(int i = 0; i < this.size; i++) {
+      final Double k = this.rnd.nextDouble();
+      this.heap.insert(k, k);
+      this.queue.add(k);
+      this.tree.put(k, k);
+    }
+  }
+
+  /**
+   * One hold operation on the fibonacci heap.
+   * @return the extracted key
+   */
+  @Benchmark
+  public double fibHeap() {
+    final double min = this.heap.extractMin();
+    final Double k = min + this.rnd.nextDouble();
+    this.heap.insert(k, k);
+    return min;
+  }
+
+  /**
+   * One hold operation on the priority queue.
+   * @return the extracted key
+   */
+  @Benchmark
+  public double priorityQueue() {
+    final double min = this.queue.poll();
+    this.queue.add(min + this.rnd.nextDouble());
+    return min;
+  }
+
+  /**
+   * One hold operation on the tree map.
+   * @return the extracted key
+   */
+  @Benchmark
+  public double treeMap() {
+    final double min = this.tree.pollFirstEntry().getKey();
+    final Double k = min + this.rnd.nextDouble();
+    this.tree.put(k, k);
+    return min;
+  }
+}
@@ -0,0 +1,298 @@
+package de.woerteler.fibheap.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.woerteler.fibheap.*;
+import de.woerteler.fibheap.FibHeap.FibNode;
+
+/**
+ * Benchmarks for the single operations of a {@link FibHeap}, compared to
+ * {@link PriorityQueue} and {@link TreeMap} where these support the operation.
+ * Run with {@code -prof gc} to also get the allocation rate.
+ * @author Leo Woerteler
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationsBenchmark {
+  /** Keys in random order, pre-boxed so that only the heaps' allocations are measured. */
+  @State(Scope.Thread)
+  public static class Keys {
+    /** Number of entries. */
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    /** Values, {@code values[i]} is {@code i}. */
+    Integer[] values;
+    /** Distinct even keys in random order. */
+    Double[] keys;
+    /** Keys that are slightly smaller than {@link #keys}, no cut is necessary. */
+    Double[] smaller;
+    /** Negative keys that cut every node from its parent. */
+    Double[] negative;
+
+    /** Creates the keys. */
+    @Setup(Level.Trial)
+    public void setup() {
+      final List<Integer> perm = new ArrayList<>(this.size);
+      for(int i = 0; i < this.size; i++) {
+        perm.add(i);
+      }
+      Collections.shuffle(perm, new Random(42));
+
+      this.values = new Integer[this.size];
+      this.keys = new Double[this.size];
+      this.smaller = new Double[this.size];
+      this.negative = new Double[this.size];
+      for(int i = 0; i < this.size; i++) {
+        final int k = perm.get(i);
+        this.values[i] = i;
+        this.keys[i] = 2.0 * k;
+        this.smaller[i] = 2.0 * k - 0.5;
+        this.negative[i] = -1.0 - k;
+      }
+    }
+
+    /**
+     * Creates a fibonacci heap containing all keys.
+     * @param nodes list for the inserted nodes
+     * @return the heap
+     */
+    FibHeap<Integer, Double> fill(final List<FibNode<Integer, Double>> nodes) {
+      final FibHeap<Integer, Double> heap = FibHeap.newComparableHeap();
+      for(int i = 0; i < this.size; i++) {
+        nodes.add(heap.insert(this.values[i], this.keys[i]));
+      }
+      return heap;
+    }
+  }
+
+  /** A consolidated fibonacci heap, re-built before every invocation. */
+  @State(Scope.Thread)
+  public static class Filled {
+    /** The heap. */
+    FibHeap<Integer, Double> heap;
+    /** Nodes of the heap, {@code nodes.get(i)} has value {@code i}. */
+    final List<FibNode<Integer, Double>> nodes = new ArrayList<>();
+    /** Priority queue containing the same keys. */
+    PriorityQueue<Double> queue;
+    /** Tree map containing the same entries. */
+    TreeMap<Double, Integer> tree;
+
+    /**
+     * Fills the data structures.
+     * @param keys keys to insert
+     */
+    @Setup(Level.Invocation)
+    public void setup(final Keys keys) {
+      this.nodes.clear();
+      this.heap = keys.fill(this.nodes);
+      // consolidate the root list so that the nodes have parents
+      this.heap.extractMin();
+      this.queue = new PriorityQueue<>(Arrays.asList(keys.keys));
+      this.tree = new TreeMap<>();
+      for(int i = 0; i < keys.size; i++) {
+        this.tree.put(keys.keys[i], keys.values[i]);
+      }
+    }
+  }
+
+  /**
+   * Inserts all keys into a fresh fibonacci heap.
+   * @param keys keys to insert
+   * @return the heap
+   */
+  @Benchmark
+  public Object insertFibHeap(final Keys keys) {
+    final FibHeap<Integer, Double> heap = FibHeap.newComparableHeap();
+    for(int i = 0; i < keys.size; i++) {
+      heap.insert(keys.values[i], keys.keys[i]);
+    }
+    return heap;
+  }
+
+  /**
+   * Inserts all keys into a fresh priority queue.
+   * @param keys keys to insert
+   * @return the queue
+   */
+  @Benchmark
+  public Object insertPriorityQueue(final Keys keys) {
+    final PriorityQueue<Double> queue = new PriorityQueue<>();
+    for(int i = 0; i < keys.size; i++) {
+      queue.add(keys.keys[i]);
+    }
+    return queue;
+  }
+
+  /**
+   * Inserts all keys into a fresh tree map.
+   * @param keys keys to insert
+   * @return the map
+   */
+  @Benchmark
+  public Object insertTreeMap(final Keys keys) {
+    final TreeMap<Double, Integer> tree = new TreeMap<>();
+    for(int i = 0; i < keys.size; i++) {
+      tree.put(keys.keys[i], keys.values[i]);
+    }
+    return tree;
+  }
+
+  /**
+   * Extracts all entries from a consolidated fibonacci heap.
+   * @param filled the heap
+   * @return sum of the values
+   */
+  @Benchmark
+  public long extractMinFibHeap(final Filled filled) {
+    long sum = 0;
+    final FibHeap<Integer, Double> heap = filled.heap;
+    while(!heap.isEmpty()) {
+      sum += heap.extractMin();
+    }
+    return sum;
+  }
+
+  /**
+   * Extracts all entries from a priority queue.
+   * @param filled the queue
+   * @return sum of the keys
+   */
+  @Benchmark
+  public double extractMinPriorityQueue(final Filled filled) {
+    double sum = 0;
+    final PriorityQueue<Double> queue = filled.queue;
+    while(!queue.isEmpty()) {
+      sum += queue.poll();
+    }
+    return sum;
+  }
+
+  /**
+   * Extracts all entries from a tree map.
+   * @param filled the map
+   * @return sum of the values
+   */
+  @Benchmark
+  public long extractMinTreeMap(final Filled filled) {
+    long sum = 0;
+    final TreeMap<Double, Integer> tree = filled.tree;
+    while(!tree.isEmpty()) {
+      sum += tree.pollFirstEntry().getValue();
+    }
+    return sum;
+  }
+
+  /**
+   * Decreases all keys of a consolidated fibonacci heap so slightly that no node has to be cut.
+   * @param filled the heap
+   * @param keys the new keys
+   * @return the heap
+   */
+  @Benchmark
+  public Object decreaseKeyFibHeap(final Filled filled, final Keys keys) {
+    final List<FibNode<Integer, Double>> nodes = filled.nodes;
+    for(int i = 0; i < keys.size; i++) {
+      final FibNode<Integer, Double> node = nodes.get(i);
+      if(node.isValid()) {
+        node.decreaseKey(keys.smaller[i]);
+      }
+    }
+    return filled.heap;
+  }
+
+  /**
+   * Decreases all keys of a consolidated fibonacci heap so that every node is cut from its
+   * parent, triggering cascading cuts.
+   * @param filled the heap
+   * @param keys the new keys
+   * @return the heap
+   */
+  @Benchmark
+  public Object decreaseKeyCascadingFibHeap(final Filled filled, final Keys keys) {
+    final List<FibNode<Integer, Double>> nodes = filled.nodes;
+    for(int i = 0; i < keys.size; i++) {
+      final FibNode<Integer, Double> node = nodes.get(i);
+      if(node.isValid()) {
+        node.decreaseKey(keys.negative[i]);
+      }
+    }
+    return filled.heap;
+  }
+
+  /**
+   * Decreases all keys of a tree map by removing and re-inserting the entries.
+   * @param filled the map
+   * @param keys the new keys
+   * @return the map
+   */
+  @Benchmark
+  public Object decreaseKeyTreeMap(final Filled filled, final Keys keys) {
+    final TreeMap<Double, Integer> tree = filled.tree;
+    for(int i = 0; i < keys.size; i++) {
+      final Integer v = tree.remove(keys.keys[i]);
+      tree.put(keys.negative[i], v);
+    }
+    return tree;
+  }
+
+  /**
+   * Sorts all keys using a fibonacci heap.
+   * @param keys keys to sort
+   * @return sum of the values
+   */
+  @Benchmark
+  public long heapSortFibHeap(final Keys keys) {
+    final FibHeap<Integer, Double> heap = FibHeap.newComparableHeap();
+    for(int i = 0; i < keys.size; i++) {
+      heap.insert(keys.values[i], keys.keys[i]);
+    }
+    long sum = 0;
+    while(!heap.isEmpty()) {
+      sum += heap.extractMin();
+    }
+    return sum;
+  }
+
+  /**
+   * Sorts all keys using a priority queue.
+   * @param keys keys to sort
+   * @return sum of the keys
+   */
+  @Benchmark
+  public double heapSortPriorityQueue(final Keys keys) {
+    final PriorityQueue<Double> queue = new PriorityQueue<>();
+    for(int i = 0; i < keys.size; i++) {
+      queue.add(keys.keys[i]);
+    }
+    double sum = 0;
+    while(!queue.isEmpty()) {
+      sum += queue.poll();
+    }
+    return sum;
+  }
+
+  /**
+   * Sorts all keys using a tree map.
+   * @param keys keys to sort
+   * @return sum of the values
+   */
+  @Benchmark
+  public long heapSortTreeMap(final Keys keys) {
+    final TreeMap<Double, Integer> tree = new TreeMap<>();
+    for(int i = 0; i < keys.size; i++) {
+      tree.put(keys.keys[i], keys.values[i]);
+    }
+    long sum = 0;
+    while(!tree.isEmpty()) {
+      sum += tree.pollFirstEntry().getValue();
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,1020 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * Node linking logic shared by all fibonacci heaps, independent of the key type.
+ * Sub-classes only have to define how the keys of two nodes are compared.
+ * @author Leo Woerteler
+ *
+ * @param <N> node type
+ */
+abstract class AbstractFibHeap<N extends AbstractFibHeap.Node<N>> {
+  /** Initial size of the degree table, enough for heaps with up to a few hundred nodes. */
+  private static final int INITIAL_DEGREES = 16;
+  /** Default number of consolidation steps per operation in incremental mode. */
+  private static final int DEFAULT_BUDGET = 16;
+
+  /** Owner of all nodes in this heap. */
+  private Owner<AbstractFibHeap<N>> owner = new Owner<>(this);
+  /** Minimum node, {@code null} if the heap is empty. */
+  N min;
+  /**
+   * Degree table used in {@link #consolidate()}, all entries are {@code null} in between.
+   * In {@link ConsolidationMode#EAGER eager} and {@link ConsolidationMode#INCREMENTAL incremental}
+   * mode it persists and holds every consolidated root at the index of its degree. Its length
+   * only grows up to the maximum degree, which is logarithmic in the heap's size.
+   */
+  private Node<?>[] degrees = new Node<?>[INITIAL_DEGREES];
+  /** Current consolidation mode. */
+  private ConsolidationMode mode = ConsolidationMode.LAZY;
+  /** Maximum number of consolidation steps per operation in incremental mode. */
+  private int budget = DEFAULT_BUDGET;
+  /**
+   * Roots that were added in bulk and are not in the degree table yet, {@code null} in lazy
+   * mode. All other roots are in the degree table.
+   */
+  private ArrayDeque<N> pending;
+  /**
+   * Node whose key is not greater than that of any pending root, {@code null} if unknown. It is
+   * either a root or a descendant of a root in the degree table, unless it was removed.
+   */
+  private N pendingMin;
+
+  /** Number of nodes in this heap. */
+  private int size;
+  /** Number of nodes in the root list. */
+  private int roots;
+  /** Number of nodes that lost a child since they became a child themselves. */
+  private int marked;
+  /** Number of nodes with a given degree, indexed by the degree. */
+  private int[] degreeCounts = new int[INITIAL_DEGREES];
+  /** Upper bound for the maximum degree, lowered lazily in {@link #maxDegree()}. */
+  private int maxDegree;
+
+  /**
+   * Checks if the key of the first node is strictly smaller than that of the second one.
+   * @param a first node
+   * @param b second node
+   * @return {@code true} if {@code a}'s key is smaller than {@code b}'s, {@code false} otherwise
+   */
+  abstract boolean less(final N a, final N b);
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   */
+  public final boolean isEmpty() {
+    return this.min == null;
+  }
+
+  /**
+   * Gets the entry currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal entry if the queue is non-empty, {@code null} otherwise
+   */
+  public final N getMin() {
+    return this.min;
+  }
+
+  /**
+   * Returns the number of entries in this heap. <em>O(1)</em>
+   * @return number of entries
+   */
+  public final int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the current length of the root list, which is what the next consolidation
+   * has to walk through. <em>O(1)</em>
+   * @return number of roots
+   */
+  public final int rootListLength() {
+    return this.roots;
+  }
+
+  /**
+   * Returns the number of marked nodes, i.e. nodes that lost a child since they became
+   * a child themselves. <em>O(1)</em>
+   * @return number of marked nodes
+   */
+  public final int markedNodes() {
+    return this.marked;
+  }
+
+  /**
+   * Returns the maximum number of children of any node in this heap. <em>O(1)*</em>
+   * @return maximum degree, {@code 0} for an empty heap
+   */
+  public final int maxDegree() {
+    int d = this.maxDegree;
+    while(d > 0 && this.degreeCounts[d] == 0) {
+      d--;
+    }
+    this.maxDegree = d;
+    return d;
+  }
+
+  /**
+   * Returns the way this heap's root list is consolidated.
+   * @return the consolidation mode
+   */
+  public final ConsolidationMode consolidationMode() {
+    return this.mode;
+  }
+
+  /**
+   * Sets the way this heap's root list is consolidated. Switching to
+   * {@link ConsolidationMode#EAGER eager} mode consolidates all current roots, switching from lazy
+   * to {@link ConsolidationMode#INCREMENTAL incremental} mode leaves them pending.
+   * <em>O(r)</em> where <em>r</em> is the length of the root list
+   * @param newMode the new consolidation mode
+   * @throws NullPointerException if {@code newMode} is {@code null}
+   */
+  public final void setConsolidationMode(final ConsolidationMode newMode) {
+    if(Objects.requireNonNull(newMode) == this.mode) {
+      return;
+    }
+    this.mode = newMode;
+    if(newMode == ConsolidationMode.LAZY) {
+      Arrays.fill(this.degrees, null);
+      this.pending = null;
+      this.pendingMin = null;
+      return;
+    }
+    if(this.pending == null) {
+      this.pending = new ArrayDeque<>();
+      this.enqueueRoots(this.min);
+    }
+    this.settle();
+  }
+
+  /**
+   * Returns the maximum number of consolidation steps that a single operation performs in
+   * {@link ConsolidationMode#INCREMENTAL incremental} mode.
+   * @return the budget
+   */
+  public final int consolidationBudget() {
+    return this.budget;
+  }
+
+  /**
+   * Sets the maximum number of consolidation steps that a single operation performs in
+   * {@link ConsolidationMode#INCREMENTAL incremental} mode. Each step puts a root into the degree
+   * table or links two roots.
+   * @param steps maximum number of steps per operation
+   * @throws IllegalArgumentException if {@code steps} is not positive
+   */
+  public final void setConsolidationBudget(final int steps) {
+    if(steps <= 0) {
+      throw new IllegalArgumentException("budget must be positive: " + steps);
+    }
+    this.budget = steps;
+  }
+
+  /**
+   * Consolidates pending roots with at most the given number of steps, e.g. when the caller is
+   * idle. Does nothing in {@link ConsolidationMode#LAZY lazy} mode. <em>O(b + log n)</em> where
+   * <em>b</em> is the budget
+   * @param steps maximum number of steps, each step puts a root into the degree table or links
+   *   two roots
+   * @return upper bound for the number of roots that are still pending
+   * @throws IllegalArgumentException if {@code steps} is negative
+   */
+  public final int maintenance(final int steps) {
+    if(steps < 0) {
+      throw new IllegalArgumentException("negative budget: " + steps);
+    }
+    if(this.pending == null) {
+      return 0;
+    }
+    this.settle(steps);
+    return this.pending.size();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder(this.getClass().getSimpleName()).append('[');
+    if(this.min != null) {
+      sb.append('\n');
+      N curr = this.min;
+      do {
+        curr.toString(sb, 1);
+        curr = curr.right;
+      } while(curr != this.min);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Returns a list of all nodes currently contained in this heap, in pre-order. <em>O(n)</em>
+   * @return list of nodes
+   */
+  final ArrayList<N> nodes() {
+    final ArrayList<N> out = new ArrayList<>(this.size);
+    if(this.min != null) {
+      final ArrayDeque<N> stack = new ArrayDeque<>();
+      stack.push(this.min);
+      while(!stack.isEmpty()) {
+        // visit all siblings, descend into their children later
+        final N fst = stack.pop();
+        N curr = fst;
+        do {
+          out.add(curr);
+          if(curr.firstChild != null) {
+            stack.push(curr.firstChild);
+          }
+          curr = curr.right;
+        } while(curr != fst);
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Inserts a freshly created node into this heap. <em>O(1)</em>
+   * @param node node to insert
+   */
+  final void insertNode(final N node) {
+    this.size++;
+    this.degreeCounts[0]++;
+    this.addRoot(node);
+    if(node != this.min && this.less(node, this.min)) {
+      this.min = node;
+    }
+    this.settle();
+  }
+
+  /**
+   * Moves all entries of the given heap into this one by splicing the root lists. Afterwards
+   * the other heap is empty, all of its nodes belong to this heap. <em>O(1)</em>, only merging
+   * the degree statistics takes <em>O(log m)</em> where <em>m</em> is the other heap's size
+   * @param other heap to take the entries from
+   * @throws IllegalArgumentException if both heaps are the same
+   */
+  final void absorb(final AbstractFibHeap<N> other) {
+    if(other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+
+    if(other.min == null) {
+      return;
+    }
+    this.enqueueRoots(other.min);
+    this.spliceIntoRootList(other.min);
+    if(other.pending != null) {
+      Arrays.fill(other.degrees, null);
+      other.pending.clear();
+      other.pendingMin = null;
+    }
+
+    // take over the statistics
+    this.size += other.size;
+    this.roots += other.roots;
+    this.marked += other.marked;
+    final int otherMax = other.maxDegree();
+    this.growDegreeCounts(otherMax);
+    for(int d = 0; d <= otherMax; d++) {
+      this.degreeCounts[d] += other.degreeCounts[d];
+      other.degreeCounts[d] = 0;
+    }
+    this.maxDegree = Math.max(this.maxDegree, otherMax);
+
+    // hand over the other heap's nodes and reset it
+    other.owner.forwardTo(this.owner);
+    other.owner = new Owner<>(other);
+    other.min = null;
+    other.size = other.roots = other.marked = other.maxDegree = 0;
+    this.settle();
+  }
+
+  /**
+   * Inserts a circular list of freshly created nodes into this heap in one step. <em>O(1)</em>
+   * @param listMin node with the smallest key in the list
+   * @param n number of nodes in the list
+   */
+  final void insertList(final N listMin, final int n) {
+    this.enqueueRoots(listMin);
+    this.spliceIntoRootList(listMin);
+    this.size += n;
+    this.roots += n;
+    this.degreeCounts[0] += n;
+    this.settle();
+  }
+
+  /**
+   * Removes the node with the smallest key from this heap and invalidates it.
+   * <em>O(log n)*</em>
+   * @return the removed node
+   * @throws IllegalStateException if the heap is empty
+   */
+  final N removeMin() {
+    final N mn = this.min;
+    if(mn == null) {
+      throw new IllegalStateException("empty heap");
+    }
+
+    // remove node from root list
+    this.min = mn.right == mn ? null : mn.right;
+    this.removeFromRootList(mn);
+
+    // remove children
+    this.promoteChildren(mn);
+
+    // invalidate the root entry and consolidate the root list
+    this.invalidate(mn);
+    if(!this.isEmpty()) {
+      this.restructure();
+    }
+    return mn;
+  }
+
+  /**
+   * Removes up to {@code k} nodes with the smallest keys from this heap, invalidates them and
+   * adds them to the given list in ascending order. The nodes are found by a best-first search
+   * through the heap-ordered trees, so the root list is only consolidated once for the whole
+   * batch. If a bound is given, only nodes with keys not greater than the bound's are removed
+   * and sub-trees with larger roots are never visited.
+   * <em>O(r + k log(r + k))*</em> where <em>r</em> is the length of the root list
+   * @param k maximum number of nodes to remove
+   * @param bound node with the largest key that can be removed, may be {@code null}
+   * @param out list for the removed nodes
+   * @return number of removed nodes
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  final int removeMins(final int k, final N bound, final List<? super N> out) {
+    if(k < 0) {
+      throw new IllegalArgumentException("negative number of entries: " + k);
+    }
+    if(k == 0 || this.min == null || bound != null && this.less(bound, this.min)) {
+      return 0;
+    }
+    if(k == 1) {
+      out.add(this.removeMin());
+      return 1;
+    }
+
+    // best-first search, the removed nodes are closed under the parent relation
+    final PriorityQueue<N> frontier = new PriorityQueue<>(Math.min(this.roots, k),
+        new Comparator<N>() {
+          @Override
+          public int compare(final N a, final N b) {
+            return AbstractFibHeap.this.less(a, b) ? -1 : AbstractFibHeap.this.less(b, a) ? 1 : 0;
+          }
+        });
+    final N fst = this.min;
+    N curr = fst;
+    do {
+      if(bound == null || !this.less(bound, curr)) {
+        frontier.add(curr);
+      }
+      curr = curr.right;
+    } while(curr != fst);
+
+    final ArrayList<N> removed = new ArrayList<>();
+    while(removed.size() < k && !frontier.isEmpty()) {
+      final N nd = frontier.poll();
+      removed.add(nd);
+      nd.owner = null;
+      final N fstChild = nd.firstChild;
+      if(fstChild != null) {
+        N child = fstChild;
+        do {
+          if(bound == null || !this.less(bound, child)) {
+            frontier.add(child);
+          }
+          child = child.right;
+        } while(child != fstChild);
+      }
+    }
+
+    // rebuild the root list from the remaining roots and the remaining children of removed nodes
+    if(this.pending != null) {
+      Arrays.fill(this.degrees, null);
+      this.pending.clear();
+      this.pendingMin = null;
+    }
+    this.min = null;
+    this.roots = 0;
+    curr = fst;
+    do {
+      final N next = curr.right;
+      if(curr.owner != null) {
+        this.addRoot(curr);
+      }
+      curr = next;
+    } while(curr != fst);
+
+    for(final N nd : removed) {
+      final N fstChild = nd.firstChild;
+      if(fstChild != null) {
+        N child = fstChild;
+        do {
+          final N next = child.right;
+          if(child.owner != null) {
+            child.parent = null;
+            this.addRoot(child);
+          }
+          child = next;
+        } while(child != fstChild);
+      }
+
+      // update the statistics and detach the node completely
+      this.size--;
+      this.degreeCounts[nd.degree]--;
+      if(nd.lost) {
+        this.marked--;
+      }
+      nd.parent = nd.firstChild = null;
+      nd.left = nd.right = nd;
+      nd.degree = 0;
+      out.add(nd);
+    }
+
+    // consolidate the root list
+    if(this.min != null) {
+      this.restructure();
+    }
+    return removed.size();
+  }
+
+  /**
+   * Restores the heap invariants after the key of the given node was decreased,
+   * cutting it from its parent if necessary. <em>O(1)*</em>
+   * @param node node whose key was decreased
+   */
+  final void decreased(final N node) {
+    final boolean cut = node.parent != null && this.less(node, node.parent);
+    if(cut) {
+      this.cut(node);
+    }
+
+    // update min pointer
+    if(this.less(node, this.min)) {
+      this.min = node;
+    }
+    if(node.parent == null && this.pendingMin != null && !this.less(this.pendingMin, node)) {
+      this.pendingMin = node;
+    }
+    if(cut && this.pending != null) {
+      this.carry(node);
+    }
+    this.settle();
+  }
+
+  /**
+   * Restores the heap invariants after the key of the given node was increased by cutting it
+   * from its parent and moving its children to the root list. <em>O(log n)*</em>
+   * @param node node whose key was increased
+   */
+  final void increased(final N node) {
+    final boolean wasMin = node == this.min;
+    if(node == this.pendingMin) {
+      this.pendingMin = null;
+    }
+    // roots that are still pending stay pending
+    final boolean resettle = node.parent != null || this.unsettle(node);
+    if(node.parent != null) {
+      this.cut(node);
+    }
+    this.promoteChildren(node);
+    if(resettle && this.pending != null) {
+      this.carry(node);
+    }
+
+    // the minimum may now be any other root
+    if(wasMin) {
+      this.restructure();
+    } else {
+      this.settle();
+    }
+  }
+
+  /**
+   * Removes the given node from this heap and invalidates it. <em>O(log n)*</em>
+   * @param node node to remove
+   */
+  final void remove(final N node) {
+    if(node.parent != null) {
+      this.cut(node);
+    }
+    if(node == this.min) {
+      this.removeMin();
+      return;
+    }
+
+    // the node is not the minimum, so the root list does not become empty
+    this.removeFromRootList(node);
+    this.promoteChildren(node);
+    this.invalidate(node);
+    this.settle();
+  }
+
+  /**
+   * Cuts the given node from its parent and moves it to the root list. If the parent already
+   * lost a child before, it is cut as well. <em>O(1)*</em>
+   * @param node non-root node to cut
+   */
+  private void cut(final N node) {
+    N curr = node, par = node.parent, root = null;
+    do {
+      // delete node from parent, a consolidated root has to be consolidated again
+      if(par.parent == null && this.unsettle(par)) {
+        root = par;
+      }
+      this.degreeCounts[par.degree]--;
+      this.degreeCounts[par.degree - 1]++;
+      if(--par.degree == 0) {
+        par.firstChild = null;
+      } else {
+        if(par.firstChild == curr) {
+          par.firstChild = curr.right;
+        }
+        curr.right.left = curr.left;
+        curr.left.right = curr.right;
+      }
+
+      // insert into root list and unmark, the node itself is consolidated by the caller
+      curr.parent = null;
+      if(curr.lost) {
+        curr.lost = false;
+        this.marked--;
+      }
+      if(curr == node) {
+        this.insertIntoRootList(curr);
+      } else {
+        this.addRoot(curr);
+      }
+
+      if(!par.lost) {
+        par.lost = true;
+        this.marked++;
+        break;
+      }
+
+      // cascade
+      curr = par;
+      par = curr.parent;
+    } while(par != null);
+
+    if(root != null) {
+      this.carry(root);
+    }
+  }
+
+  /**
+   * Moves all children of the given node to the root list. <em>O(d)</em> where <em>d</em> is the
+   * node's degree
+   * @param node node whose children are moved
+   */
+  private void promoteChildren(final N node) {
+    final N fst = node.firstChild;
+    if(fst != null) {
+      this.degreeCounts[node.degree]--;
+      this.degreeCounts[0]++;
+      node.firstChild = null;
+      node.degree = 0;
+      N curr = fst;
+      do {
+        final N next = curr.right;
+        curr.parent = null;
+        this.addRoot(curr);
+        curr = next;
+      } while(curr != fst);
+    }
+  }
+
+  /**
+   * Inserts the given node into the root list and, unless the heap is in lazy mode, consolidates
+   * it right away. <em>O(1)</em> in lazy mode, <em>O(log n)</em> otherwise
+   * @param nd node to insert
+   */
+  private void addRoot(final N nd) {
+    this.insertIntoRootList(nd);
+    if(this.pending != null) {
+      this.carry(nd);
+    }
+  }
+
+  /**
+   * Inserts the given node into the root list. <em>O(1)</em>
+   * @param nd node to insert
+   */
+  private void insertIntoRootList(final N nd) {
+    this.roots++;
+    final N mn = this.min;
+    if(mn == null) {
+      nd.left = nd.right = nd;
+      this.min = nd;
+    } else {
+      nd.left = mn;
+      nd.right = mn.right;
+      mn.right.left = nd;
+      mn.right = nd;
+    }
+  }
+
+  /**
+   * Splices a circular list of roots into the root list and updates the minimum. The root list
+   * statistics are not updated. <em>O(1)</em>
+   * @param listMin node with the smallest key in the list
+   */
+  private void spliceIntoRootList(final N listMin) {
+    final N mn = this.min;
+    if(mn == null) {
+      this.min = listMin;
+    } else {
+      final N mnRight = mn.right, listLeft = listMin.left;
+      mn.right = listMin;
+      listMin.left = mn;
+      listLeft.right = mnRight;
+      mnRight.left = listLeft;
+      if(this.less(listMin, mn)) {
+        this.min = listMin;
+      }
+    }
+  }
+
+  /**
+   * Removes the given node from the root list. <em>O(1)</em>
+   * @param nd node to remove
+   */
+  private void removeFromRootList(final N nd) {
+    this.unsettle(nd);
+    this.roots--;
+    nd.left.right = nd.right;
+    nd.right.left = nd.left;
+    nd.left = nd.right = nd;
+  }
+
+  /**
+   * Invalidates a node that was removed from the heap and has no children left.
+   * @param nd removed node
+   */
+  private void invalidate(final N nd) {
+    this.size--;
+    this.degreeCounts[0]--;
+    if(nd.lost) {
+      this.marked--;
+    }
+    nd.owner = null;
+  }
+
+  /**
+   * Makes sure that {@link #degreeCounts} can hold the given degree.
+   * @param d degree
+   */
+  private void growDegreeCounts(final int d) {
+    if(d >= this.degreeCounts.length) {
+      this.degreeCounts = Arrays.copyOf(this.degreeCounts, 2 * d);
+    }
+  }
+
+  /**
+   * Consolidates the root list after a call to {@link #removeMin()}.<br/>
+   * <em>O(r)</em> where <em>r</em> is the length of the root list
+   */
+  private void consolidate() {
+    Node<?>[] table = this.degrees;
+    final N fst = this.min;
+    this.min = null;
+    this.roots = 0;
+
+    // go through the root list and merge nodes with the same degree
+    int maxDeg = 0;
+    N curr = fst;
+    do {
+      final N next = curr.right;
+      int d = curr.degree;
+      while(d < table.length && table[d] != null) {
+        @SuppressWarnings("unchecked")
+        N other = (N) table[d];
+        table[d] = null;
+        // the smaller key goes on top
+        if(this.less(other, curr)) {
+          final N temp = curr;
+          curr = other;
+          other = temp;
+        }
+
+        this.addChild(curr, other);
+        d++;
+      }
+
+      // insert the new node
+      if(d >= table.length) {
+        table = this.degrees = Arrays.copyOf(table, 2 * d);
+      }
+      table[d] = curr;
+      if(d > maxDeg) {
+        maxDeg = d;
+      }
+
+      curr = next;
+    } while(curr != fst);
+
+    // re-add all nodes to the root list, update the minimum and clear the table
+    N mn = null;
+    for(int d = 0; d <= maxDeg; d++) {
+      @SuppressWarnings("unchecked")
+      final N nd = (N) table[d];
+      if(nd != null) {
+        table[d] = null;
+        this.insertIntoRootList(nd);
+        if(mn == null || this.less(nd, mn)) {
+          mn = nd;
+        }
+      }
+    }
+    this.min = mn;
+  }
+
+  /**
+   * Adds a root as a child to another root of the same degree. The root list is not updated.
+   * <em>O(1)</em>
+   * @param par new parent
+   * @param child new child
+   */
+  private void addChild(final N par, final N child) {
+    // the new child has not lost any children as a child yet
+    child.parent = par;
+    if(child.lost) {
+      child.lost = false;
+      this.marked--;
+    }
+    final N fstChild = par.firstChild;
+    if(fstChild == null) {
+      par.firstChild = child;
+      child.left = child.right = child;
+    } else {
+      child.left = fstChild;
+      child.right = fstChild.right;
+      fstChild.right.left = child;
+      fstChild.right = child;
+    }
+    final int d = par.degree;
+    this.growDegreeCounts(d + 1);
+    this.degreeCounts[d]--;
+    this.degreeCounts[d + 1]++;
+    par.degree = d + 1;
+    if(d + 1 > this.maxDegree) {
+      this.maxDegree = d + 1;
+    }
+  }
+
+  /**
+   * Restores the invariants of the current consolidation mode after the minimum was removed
+   * from the non-empty root list, and finds the new minimum. <em>O(r)</em> in lazy mode where
+   * <em>r</em> is the length of the root list, <em>O(log n)</em> in eager mode and
+   * <em>O(b + log n)</em> in incremental mode, plus <em>O(p)</em> comparisons for the <em>p</em>
+   * pending roots if the smallest of them is unknown
+   */
+  private void restructure() {
+    if(this.pending == null) {
+      this.consolidate();
+      return;
+    }
+    this.settle();
+
+    // the smallest pending root is a candidate if it is not below a root in the degree table
+    N mn = null;
+    if(!this.pending.isEmpty()) {
+      N pm = this.pendingMin;
+      if(pm == null || pm.owner == null) {
+        // it was removed or its key increased, so it is searched for without linking anything
+        pm = null;
+        for(final N nd : this.pending) {
+          if(nd.owner != null && nd.parent == null && (pm == null || this.less(nd, pm))) {
+            pm = nd;
+          }
+        }
+        this.pendingMin = pm;
+      }
+      if(pm != null && pm.parent == null) {
+        mn = pm;
+      }
+    }
+
+    // all other roots are in the degree table
+    final Node<?>[] table = this.degrees;
+    final int max = Math.min(this.maxDegree, table.length - 1);
+    for(int d = 0; d <= max; d++) {
+      @SuppressWarnings("unchecked")
+      final N nd = (N) table[d];
+      if(nd != null && (mn == null || this.less(nd, mn))) {
+        mn = nd;
+      }
+    }
+    this.min = mn;
+  }
+
+  /**
+   * Consolidates pending roots, all of them in eager mode and as many as the budget allows in
+   * incremental mode. Does nothing in lazy mode.
+   */
+  private void settle() {
+    if(this.pending != null) {
+      this.settle(this.mode == ConsolidationMode.EAGER ? Integer.MAX_VALUE : this.budget);
+    }
+  }
+
+  /**
+   * Links pending roots into the degree table until the given number of steps is used up. A root
+   * that was started on is always linked completely. If all pending roots are consolidated, no
+   * two roots have the same degree. <em>O(b + log n)</em> where <em>b</em> is the budget
+   * @param steps maximum number of steps
+   */
+  private void settle(final int steps) {
+    final ArrayDeque<N> queue = this.pending;
+    for(int work = steps; work > 0;) {
+      final N nd = queue.poll();
+      if(nd == null) {
+        break;
+      }
+      // skip roots that were removed, linked or already consolidated in the meantime
+      final int d = nd.degree;
+      if(nd.owner != null && nd.parent == null
+          && (d >= this.degrees.length || this.degrees[d] != nd)) {
+        work -= this.carry(nd);
+      } else {
+        work--;
+      }
+    }
+    if(queue.isEmpty()) {
+      this.pendingMin = null;
+    }
+  }
+
+  /**
+   * Links the given root with the root of the same degree as long as there is one, and puts the
+   * result into the degree table. <em>O(log n)</em>
+   * @param root root that is not in the degree table
+   * @return number of steps, i.e. links plus one
+   */
+  private int carry(final N root) {
+    Node<?>[] table = this.degrees;
+    N curr = root;
+    int d = curr.degree, work = 1;
+    while(d < table.length && table[d] != null) {
+      work++;
+      @SuppressWarnings("unchecked")
+      N other = (N) table[d];
+      table[d] = null;
+      // the smaller key goes on top
+      if(this.less(other, curr)) {
+        final N temp = curr;
+        curr = other;
+        other = temp;
+      }
+      this.removeFromRootList(other);
+      if(other == this.min) {
+        this.min = curr;
+      }
+      this.addChild(curr, other);
+      d++;
+    }
+    if(d >= table.length) {
+      table = this.degrees = Arrays.copyOf(table, 2 * d);
+    }
+    table[d] = curr;
+    return work;
+  }
+
+  /**
+   * Removes the given root from the degree table if it is stored there.
+   * @param root root node
+   * @return {@code true} if the root was removed from the table, {@code false} otherwise
+   */
+  private boolean unsettle(final N root) {
+    final Node<?>[] table = this.degrees;
+    final int d = root.degree;
+    if(this.pending == null || d >= table.length || table[d] != root) {
+      return false;
+    }
+    table[d] = null;
+    return true;
+  }
+
+  /**
+   * Adds all nodes of the given circular list to the pending roots. Does nothing in lazy mode.
+   * <em>O(k)</em> where <em>k</em> is the length of the list
+   * @param listMin node with the smallest key in the list, may be {@code null}
+   */
+  private void enqueueRoots(final N listMin) {
+    if(this.pending != null && listMin != null) {
+      final N pm = this.pendingMin;
+      if(pm == null ? this.pending.isEmpty() : !this.less(pm, listMin)) {
+        this.pendingMin = listMin;
+      }
+      N curr = listMin;
+      do {
+        this.pending.add(curr);
+        curr = curr.right;
+      } while(curr != listMin);
+    }
+  }
+
+  /**
+   * A node in a fibonacci heap, holding the structural links but no key.
+   * @author Leo Woerteler
+   * @param <N> node type
+   */
+  abstract static class Node<N extends Node<N>> {
+    /** Owner of this node's heap, {@code null} if the node was removed. */
+    Owner<AbstractFibHeap<N>> owner;
+
+    /** Parent pointer, {@code null} if the node is in the root list. */
+    N parent;
+    /** Pointer to some child, {@code null} iff {@link #degree} is {@code 0}. */
+    N firstChild;
+    /** Pointer to this node's left sibling (non-{@code null}, can be {@code this}). */
+    N left;
+    /** Pointer to this node's right sibling (non-{@code null}, can be {@code this}). */
+    N right;
+
+    /** Flag for nodes that already lost a child. */
+    boolean lost;
+    /** Number of children. */
+    int degree;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     */
+    Node(final AbstractFibHeap<N> heap) {
+      @SuppressWarnings("unchecked")
+      final N self = (N) this;
+      this.owner = heap.owner;
+      this.left = this.right = self;
+    }
+
+    /**
+     * Checks if this entry is still contained in its heap.
+     * @return result of check
+     */
+    public final boolean isValid() {
+      return this.owner != null;
+    }
+
+    /**
+     * Removes this node from its heap. <em>O(log n)*</em>
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    public final void delete() {
+      @SuppressWarnings("unchecked")
+      final N self = (N) this;
+      this.checkValid().remove(self);
+    }
+
+    /**
+     * Checks that this node is still contained in its heap and returns that heap.
+     * @return the heap
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    final AbstractFibHeap<N> checkValid() {
+      if(this.owner == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      final Owner<AbstractFibHeap<N>> current = this.owner.find();
+      this.owner = current;
+      return current.heap();
+    }
+
+    /**
+     * Appends this node's key and value to the given string builder.
+     * @param sb string builder
+     */
+    abstract void appendEntry(final StringBuilder sb);
+
+    /**
+     * Recursive helper for {@link AbstractFibHeap#toString()}.
+     * @param sb string builder
+     * @param indent indentation level
+     */
+    final void toString(final StringBuilder sb, final int indent) {
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("Node").append(this.lost ? "'" : "").append('#').append(this.degree).append("[\n");
+      for(int i = 0; i <= indent; i++) {
+        sb.append("  ");
+      }
+      sb.append('(');
+      this.appendEntry(sb);
+      sb.append(")");
+      if(this.firstChild == null) {
+        sb.append("\n");
+      } else {
+        sb.append(",\n");
+        N curr = this.firstChild;
+        do {
+          curr.toString(sb, indent + 1);
+          curr = curr.right;
+        } while(curr != this.firstChild);
+      }
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("]\n");
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package de.woerteler.fibheap;
+
+/**
+ * A priority queue whose entries can be addressed through the {@link Handle handles} returned
+ * on insertion, which allows decreasing their keys and deleting them. Implementations only
+ * differ in their performance characteristics, so callers can switch between them by changing
+ * the line that creates the heap.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public interface AddressableHeap<V, P> {
+  /**
+   * Inserts a new entry into this heap.
+   * @param v value to insert
+   * @param k key to insert
+   * @return handle of the inserted entry
+   */
+  Handle<V, P> insert(V v, P k);
+
+  /**
+   * Gets the entry currently at the top of this heap.
+   * @return a minimal entry if the heap is non-empty, {@code null} otherwise
+   */
+  Handle<V, P> getMin();
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap.
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  V extractMin();
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * the handles of its entries belong to this heap.
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same, are of different types or
+   *   order their keys differently
+   */
+  void meld(AddressableHeap<V, P> other);
+
+  /**
+   * Returns the number of entries in this heap.
+   * @return number of entries
+   */
+  int size();
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   */
+  boolean isEmpty();
+
+  /**
+   * Handle for an entry of an {@link AddressableHeap}.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  interface Handle<V, P> {
+    /**
+     * Getter for this entry's current key.
+     * @return the key
+     */
+    P getKey();
+
+    /**
+     * Getter for this entry's value.
+     * @return the value
+     */
+    V getValue();
+
+    /**
+     * Checks if this entry is still contained in its heap.
+     * @return result of check
+     */
+    boolean isValid();
+
+    /**
+     * Decreases this entry's key in its heap.
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the entry is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    void decreaseKey(P newKey);
+
+    /**
+     * Removes this entry from its heap.
+     * @throws IllegalStateException if the entry is no longer contained in its heap
+     */
+    void delete();
+  }
+}
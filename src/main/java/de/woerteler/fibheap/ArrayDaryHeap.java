@@ -0,0 +1,229 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * An implicit d-ary heap with primitive {@code double} keys whose entries are addressed by
+ * {@code int} handles, the array-based counterpart of {@link ArrayFibHeap} with the same
+ * interface. The keys are stored next to the handles in heap order, so sifting only touches
+ * two primitive arrays and a position index.
+ * @author Leo Woerteler
+ */
+public final class ArrayDaryHeap {
+  /** Handle returned by {@link #getMin()} if the heap is empty. */
+  public static final int NONE = -1;
+
+  /** Binary logarithm of the arity. */
+  private final int shift;
+  /** Handles in heap order, the first {@link #size} entries are used. */
+  private int[] heap;
+  /** Keys in heap order, parallel to {@link #heap}. */
+  private double[] keys;
+  /** Position of each handle in {@link #heap}, {@link #NONE} for absent handles. */
+  private int[] pos;
+  /** Number of entries. */
+  private int size;
+
+  /**
+   * Constructor.
+   * @param arity number of children per node, a power of two
+   * @param capacity initial number of handles, grows automatically
+   * @throws IllegalArgumentException if the arity is not a power of two greater than one
+   */
+  public ArrayDaryHeap(final int arity, final int capacity) {
+    if(arity < 2 || Integer.bitCount(arity) != 1) {
+      throw new IllegalArgumentException("arity must be a power of two: " + arity);
+    }
+    this.shift = Integer.numberOfTrailingZeros(arity);
+    this.heap = new int[capacity];
+    this.keys = new double[capacity];
+    this.pos = new int[capacity];
+    Arrays.fill(this.pos, NONE);
+  }
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the number of entries in this heap. <em>O(1)</em>
+   * @return number of entries
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks if the given handle is currently contained in this heap.
+   * @param h handle
+   * @return result of check
+   */
+  public boolean contains(final int h) {
+    return h >= 0 && h < this.pos.length && this.pos[h] != NONE;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(log n / log d)</em>
+   * @param h handle of the new entry, must not be negative
+   * @param k key to insert
+   * @throws IllegalArgumentException if the handle is negative or already contained in the heap,
+   *   or if the key is {@code NaN}
+   */
+  public void insert(final int h, final double k) {
+    if(h < 0 || this.contains(h)) {
+      throw new IllegalArgumentException("invalid handle: " + h);
+    }
+    DoubleFibHeap.checkKey(k);
+    if(h >= this.pos.length) {
+      final int old = this.pos.length;
+      this.pos = Arrays.copyOf(this.pos, Math.max(h + 1, old + (old >> 1) + 1));
+      Arrays.fill(this.pos, old, this.pos.length, NONE);
+    }
+    if(this.size == this.heap.length) {
+      final int cap = this.size + (this.size >> 1) + 1;
+      this.heap = Arrays.copyOf(this.heap, cap);
+      this.keys = Arrays.copyOf(this.keys, cap);
+    }
+    this.siftUp(h, k, this.size++);
+  }
+
+  /**
+   * Gets the handle currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal handle if the queue is non-empty, {@link #NONE} otherwise
+   */
+  public int getMin() {
+    return this.size == 0 ? NONE : this.heap[0];
+  }
+
+  /**
+   * Getter for the current key of the given handle.
+   * @param h handle
+   * @return the key currently associated with the handle
+   * @throws IllegalStateException if the handle is not contained in the heap
+   */
+  public double getKey(final int h) {
+    this.checkValid(h);
+    return this.keys[this.pos[h]];
+  }
+
+  /**
+   * Extracts and returns the handle with the smallest key from this heap.
+   * <em>O(d log n / log d)</em>
+   * @return the handle
+   * @throws IllegalStateException if the heap is empty
+   */
+  public int extractMin() {
+    if(this.size == 0) {
+      throw new IllegalStateException("empty heap");
+    }
+    final int mn = this.heap[0];
+    final int last = --this.size;
+    if(last > 0) {
+      this.siftDown(this.heap[last], this.keys[last], 0);
+    }
+    this.pos[mn] = NONE;
+    return mn;
+  }
+
+  /**
+   * Decreases the key of the given handle. <em>O(log n / log d)</em>
+   * @param h handle
+   * @param newKey new, smaller key
+   * @throws IllegalStateException if the handle is not contained in the heap
+   * @throws IllegalArgumentException if the new key is greater that the old one or {@code NaN}
+   */
+  public void decreaseKey(final int h, final double newKey) {
+    this.checkValid(h);
+    DoubleFibHeap.checkKey(newKey);
+    final int p = this.pos[h];
+    if(newKey > this.keys[p]) {
+      throw new IllegalArgumentException("new key is greater than old one");
+    }
+    this.siftUp(h, newKey, p);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("ArrayDaryHeap[");
+    for(int i = 0; i < this.size; i++) {
+      sb.append(i == 0 ? "" : ", ").append('(').append(this.keys[i]).append(", ");
+      sb.append(this.heap[i]).append(')');
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Checks that the given handle is contained in this heap.
+   * @param h handle
+   * @throws IllegalStateException if the handle is not contained in the heap
+   */
+  private void checkValid(final int h) {
+    if(!this.contains(h)) {
+      throw new IllegalStateException("handle is not valid: " + h);
+    }
+  }
+
+  /**
+   * Moves the given entry up from the given position until its parent is not greater.
+   * @param h handle
+   * @param k key
+   * @param start position to start at, its current entry is overwritten
+   */
+  private void siftUp(final int h, final double k, final int start) {
+    final int[] hp = this.heap, ps = this.pos;
+    final double[] ks = this.keys;
+    int p = start;
+    while(p > 0) {
+      final int par = (p - 1) >>> this.shift;
+      if(k >= ks[par]) {
+        break;
+      }
+      hp[p] = hp[par];
+      ks[p] = ks[par];
+      ps[hp[p]] = p;
+      p = par;
+    }
+    hp[p] = h;
+    ks[p] = k;
+    ps[h] = p;
+  }
+
+  /**
+   * Moves the given entry down from the given position until none of its children is smaller.
+   * @param h handle
+   * @param k key
+   * @param start position to start at, its current entry is overwritten
+   */
+  private void siftDown(final int h, final double k, final int start) {
+    final int[] hp = this.heap, ps = this.pos;
+    final double[] ks = this.keys;
+    final int n = this.size;
+    int p = start;
+    for(;;) {
+      final int fst = (p << this.shift) + 1;
+      if(fst >= n) {
+        break;
+      }
+      final int end = Math.min(fst + (1 << this.shift), n);
+      int mn = fst;
+      for(int c = fst + 1; c < end; c++) {
+        if(ks[c] < ks[mn]) {
+          mn = c;
+        }
+      }
+      if(ks[mn] >= k) {
+        break;
+      }
+      hp[p] = hp[mn];
+      ks[p] = ks[mn];
+      ps[hp[p]] = p;
+      p = mn;
+    }
+    hp[p] = h;
+    ks[p] = k;
+    ps[h] = p;
+  }
+}
@@ -0,0 +1,369 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * A fibonacci heap with primitive {@code double} keys whose nodes are addressed by {@code int}
+ * handles. Instead of one object per node, all links are stored in parallel arrays indexed by
+ * the handle, which makes it a good fit for entries that already have a dense integer ID like
+ * the vertices of a graph.
+ * @author Leo Woerteler
+ */
+public final class ArrayFibHeap {
+  /** Handle returned by {@link #getMin()} if the heap is empty. */
+  public static final int NONE = -1;
+  /** Parent marker for handles that are currently not contained in the heap. */
+  private static final int ABSENT = -2;
+  /** Maximum degree of a node, the degree is logarithmic in the number of handles. */
+  private static final int MAX_DEGREE = 64;
+
+  /** Current key of each handle. */
+  private double[] keys;
+  /** Parent of each handle, {@link #NONE} for roots and {@link #ABSENT} for removed ones. */
+  private int[] parent;
+  /** Some child of each handle, {@link #NONE} iff its degree is {@code 0}. */
+  private int[] child;
+  /** Left sibling of each handle. */
+  private int[] left;
+  /** Right sibling of each handle. */
+  private int[] right;
+  /** Number of children of each handle. */
+  private int[] degree;
+  /** Flags for handles that already lost a child. */
+  private boolean[] lost;
+
+  /** Degree table used in {@link #consolidate()}, all entries are {@link #NONE} in between. */
+  private final int[] degrees = new int[MAX_DEGREE];
+  /** Handle of the minimum, {@link #NONE} if the heap is empty. */
+  private int min = NONE;
+
+  /**
+   * Constructor.
+   * @param capacity initial number of handles, grows automatically
+   */
+  public ArrayFibHeap(final int capacity) {
+    this.keys = new double[capacity];
+    this.parent = new int[capacity];
+    this.child = new int[capacity];
+    this.left = new int[capacity];
+    this.right = new int[capacity];
+    this.degree = new int[capacity];
+    this.lost = new boolean[capacity];
+    Arrays.fill(this.parent, ABSENT);
+    Arrays.fill(this.degrees, NONE);
+  }
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return this.min == NONE;
+  }
+
+  /**
+   * Checks if the given handle is currently contained in this heap.
+   * @param h handle
+   * @return result of check
+   */
+  public boolean contains(final int h) {
+    return h >= 0 && h < this.parent.length && this.parent[h] != ABSENT;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param h handle of the new entry, must not be negative
+   * @param k key to insert
+   * @throws IllegalArgumentException if the handle is negative or already contained in the heap,
+   *   or if the key is {@code NaN}
+   */
+  public void insert(final int h, final double k) {
+    if(h < 0 || this.contains(h)) {
+      throw new IllegalArgumentException("invalid handle: " + h);
+    }
+    DoubleFibHeap.checkKey(k);
+    if(h >= this.parent.length) {
+      this.grow(h + 1);
+    }
+
+    this.keys[h] = k;
+    this.parent[h] = NONE;
+    this.child[h] = NONE;
+    this.degree[h] = 0;
+    this.lost[h] = false;
+    this.insertIntoRootList(h);
+    if(k < this.keys[this.min]) {
+      this.min = h;
+    }
+  }
+
+  /**
+   * Gets the handle currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal handle if the queue is non-empty, {@link #NONE} otherwise
+   */
+  public int getMin() {
+    return this.min;
+  }
+
+  /**
+   * Getter for the current key of the given handle.
+   * @param h handle
+   * @return the key currently associated with the handle
+   * @throws IllegalStateException if the handle is not contained in the heap
+   */
+  public double getKey(final int h) {
+    this.checkValid(h);
+    return this.keys[h];
+  }
+
+  /**
+   * Extracts and returns the handle with the smallest key from this heap.
+   * <em>O(log n)*</em>
+   * @return the handle
+   * @throws IllegalStateException if the heap is empty
+   */
+  public int extractMin() {
+    final int mn = this.min;
+    if(mn == NONE) {
+      throw new IllegalStateException("empty heap");
+    }
+    final int[] lft = this.left, rgt = this.right;
+
+    // remove node from root list
+    if(rgt[mn] == mn) {
+      this.min = NONE;
+    } else {
+      lft[rgt[mn]] = lft[mn];
+      rgt[lft[mn]] = rgt[mn];
+      this.min = rgt[mn];
+    }
+
+    // add children to root list
+    final int fst = this.child[mn];
+    if(fst != NONE) {
+      int curr = fst;
+      do {
+        final int next = rgt[curr];
+        this.parent[curr] = NONE;
+        this.insertIntoRootList(curr);
+        curr = next;
+      } while(curr != fst);
+    }
+
+    // consolidate the root list
+    if(this.min != NONE) {
+      this.consolidate();
+    }
+
+    // invalidate and return the root entry
+    this.parent[mn] = ABSENT;
+    return mn;
+  }
+
+  /**
+   * Decreases the key of the given handle. <em>O(1)*</em>
+   * @param h handle
+   * @param newKey new, smaller key
+   * @throws IllegalStateException if the handle is not contained in the heap
+   * @throws IllegalArgumentException if the new key is greater that the old one or {@code NaN}
+   */
+  public void decreaseKey(final int h, final double newKey) {
+    this.checkValid(h);
+    DoubleFibHeap.checkKey(newKey);
+    final double[] ks = this.keys;
+    if(newKey > ks[h]) {
+      throw new IllegalArgumentException("new key is greater than old one");
+    }
+
+    ks[h] = newKey;
+    final int[] par = this.parent, lft = this.left, rgt = this.right;
+    if(par[h] != NONE && newKey < ks[par[h]]) {
+      int curr = h, p = par[h];
+      do {
+        // delete node from parent
+        if(--this.degree[p] == 0) {
+          this.child[p] = NONE;
+        } else {
+          if(this.child[p] == curr) {
+            this.child[p] = rgt[curr];
+          }
+          lft[rgt[curr]] = lft[curr];
+          rgt[lft[curr]] = rgt[curr];
+        }
+
+        // insert into root list and unmark
+        par[curr] = NONE;
+        this.lost[curr] = false;
+        this.insertIntoRootList(curr);
+
+        if(!this.lost[p]) {
+          this.lost[p] = true;
+          break;
+        }
+
+        // cascade
+        curr = p;
+        p = par[curr];
+      } while(p != NONE);
+    }
+
+    // update min pointer
+    if(newKey < ks[this.min]) {
+      this.min = h;
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("ArrayFibHeap[");
+    if(this.min != NONE) {
+      sb.append('\n');
+      int curr = this.min;
+      do {
+        this.toString(sb, curr, 1);
+        curr = this.right[curr];
+      } while(curr != this.min);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Checks that the given handle is contained in this heap.
+   * @param h handle
+   * @throws IllegalStateException if the handle is not contained in the heap
+   */
+  private void checkValid(final int h) {
+    if(!this.contains(h)) {
+      throw new IllegalStateException("handle is not valid: " + h);
+    }
+  }
+
+  /**
+   * Grows all arrays so that they can hold at least the given number of handles.
+   * @param capacity minimum capacity
+   */
+  private void grow(final int capacity) {
+    final int old = this.parent.length;
+    final int cap = Math.max(capacity, old + (old >> 1) + 1);
+    this.keys = Arrays.copyOf(this.keys, cap);
+    this.parent = Arrays.copyOf(this.parent, cap);
+    this.child = Arrays.copyOf(this.child, cap);
+    this.left = Arrays.copyOf(this.left, cap);
+    this.right = Arrays.copyOf(this.right, cap);
+    this.degree = Arrays.copyOf(this.degree, cap);
+    this.lost = Arrays.copyOf(this.lost, cap);
+    Arrays.fill(this.parent, old, cap, ABSENT);
+  }
+
+  /**
+   * Inserts the given handle into the root list. <em>O(1)</em>
+   * @param h handle to insert
+   */
+  private void insertIntoRootList(final int h) {
+    final int mn = this.min;
+    if(mn == NONE) {
+      this.left[h] = this.right[h] = h;
+      this.min = h;
+    } else {
+      this.left[h] = mn;
+      this.right[h] = this.right[mn];
+      this.left[this.right[mn]] = h;
+      this.right[mn] = h;
+    }
+  }
+
+  /**
+   * Consolidates the root list after a call to {@link #extractMin()}.<br/>
+   * <em>O(r)</em> where <em>r</em> is the length of the root list
+   */
+  private void consolidate() {
+    final double[] ks = this.keys;
+    final int[] par = this.parent, chld = this.child, lft = this.left, rgt = this.right,
+        deg = this.degree, table = this.degrees;
+    final int fst = this.min;
+    this.min = NONE;
+
+    // go through the root list and merge nodes with the same degree
+    int maxDeg = 0;
+    int curr = fst;
+    do {
+      final int next = rgt[curr];
+      int d = deg[curr];
+      while(table[d] != NONE) {
+        int other = table[d];
+        table[d] = NONE;
+        // the smaller key goes on top
+        if(ks[other] < ks[curr]) {
+          final int temp = curr;
+          curr = other;
+          other = temp;
+        }
+
+        // add `other` as a child to `curr`
+        par[other] = curr;
+        final int fstChild = chld[curr];
+        if(fstChild == NONE) {
+          chld[curr] = other;
+          lft[other] = rgt[other] = other;
+        } else {
+          lft[other] = fstChild;
+          rgt[other] = rgt[fstChild];
+          lft[rgt[fstChild]] = other;
+          rgt[fstChild] = other;
+        }
+        deg[curr] = ++d;
+      }
+
+      // insert the new node
+      table[d] = curr;
+      maxDeg = Math.max(maxDeg, d);
+      curr = next;
+    } while(curr != fst);
+
+    // re-add all nodes to the root list, update the minimum and clear the table
+    int mn = NONE;
+    for(int d = 0; d <= maxDeg; d++) {
+      final int nd = table[d];
+      if(nd != NONE) {
+        table[d] = NONE;
+        this.insertIntoRootList(nd);
+        if(mn == NONE || ks[nd] < ks[mn]) {
+          mn = nd;
+        }
+      }
+    }
+    this.min = mn;
+  }
+
+  /**
+   * Recursive helper for {@link #toString()}.
+   * @param sb string builder
+   * @param h handle
+   * @param indent indentation level
+   */
+  private void toString(final StringBuilder sb, final int h, final int indent) {
+    for(int i = 0; i < indent; i++) {
+      sb.append("  ");
+    }
+    sb.append("Node").append(this.lost[h] ? "'" : "").append('#').append(this.degree[h]);
+    sb.append("[\n");
+    for(int i = 0; i <= indent; i++) {
+      sb.append("  ");
+    }
+    sb.append('(').append(this.keys[h]).append(", ").append(h).append(")");
+    final int fst = this.child[h];
+    if(fst == NONE) {
+      sb.append("\n");
+    } else {
+      sb.append(",\n");
+      int curr = fst;
+      do {
+        this.toString(sb, curr, indent + 1);
+        curr = this.right[curr];
+      } while(curr != fst);
+    }
+    for(int i = 0; i < indent; i++) {
+      sb.append("  ");
+    }
+    sb.append("]\n");
+  }
+}
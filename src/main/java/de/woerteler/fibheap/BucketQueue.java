@@ -0,0 +1,324 @@
+package de.woerteler.fibheap;
+
+/**
+ * A monotone priority queue for small integer key ranges, implemented as a circular array of
+ * buckets as in Dial's variant of Dijkstra's algorithm. All keys have to lie between the last
+ * extracted minimum and that minimum plus a fixed maximum weight, which holds for Dijkstra's
+ * algorithm if the maximum weight is the largest edge weight. Each bucket then holds entries
+ * with a single key in an intrusive doubly-linked list, so inserting and decreasing keys takes
+ * <em>O(1)</em> and {@link #extractMin()} only has to skip empty buckets.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ */
+public final class BucketQueue<V> {
+  /** First node in each bucket, bucket {@code i} holds the keys congruent to {@code i}. */
+  private final BucketNode<?>[] buckets;
+  /** Maximum difference between the last extracted minimum and any key. */
+  private final int maxWeight;
+  /** Last extracted minimum, a lower bound for all keys in the queue. */
+  private long last;
+  /** Number of nodes in this queue. */
+  private int size;
+
+  /**
+   * Constructor.
+   * @param maxWeight maximum difference between the last extracted minimum and any key
+   */
+  private BucketQueue(final int maxWeight) {
+    this.buckets = new BucketNode<?>[maxWeight + 1];
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Creates a new bucket queue for non-negative keys.
+   * @param <V> value type
+   * @param maxWeight maximum difference between the last extracted minimum and any key
+   * @return a new bucket queue
+   * @throws IllegalArgumentException if the maximum weight is negative or too large
+   */
+  public static <V> BucketQueue<V> newQueue(final int maxWeight) {
+    if(maxWeight < 0 || maxWeight == Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("invalid maximum weight: " + maxWeight);
+    }
+    return new BucketQueue<>(maxWeight);
+  }
+
+  /**
+   * Tests if this queue is empty.
+   * @return {@code true} if the queue is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the number of entries in this queue. <em>O(1)</em>
+   * @return number of entries
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the key of the last extracted minimum, which is the smallest key that can still be
+   * inserted. Before the first extraction it is {@code 0}.
+   * @return lower bound for new keys
+   */
+  public long lastMin() {
+    return this.last;
+  }
+
+  /**
+   * Returns the maximum difference between the last extracted minimum and any key.
+   * @return the maximum weight
+   */
+  public int maxWeight() {
+    return this.maxWeight;
+  }
+
+  /**
+   * Inserts a new entry into this queue. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   * @throws IllegalArgumentException if the key is smaller than the last extracted minimum or
+   *   exceeds it by more than the maximum weight
+   */
+  public BucketNode<V> insert(final V v, final long k) {
+    this.checkKey(k);
+    final BucketNode<V> node = new BucketNode<>(this, k, v);
+    this.push(node);
+    this.size++;
+    return node;
+  }
+
+  /**
+   * Gets the entry currently at the top of this queue. <em>O(C)</em> where <em>C</em> is the
+   * maximum weight
+   * @return a minimal entry if the queue is non-empty, {@code null} otherwise
+   */
+  public BucketNode<V> getMin() {
+    return this.size == 0 ? null : this.bucket(this.firstBucket());
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this queue. <em>O(C)</em>, but
+   * amortized <em>O(1)</em> in Dijkstra's algorithm, where the scanned range is bounded by the
+   * largest distance
+   * @return the value
+   * @throws IllegalStateException if the queue is empty
+   */
+  public V extractMin() {
+    if(this.size == 0) {
+      throw new IllegalStateException("empty queue");
+    }
+    final BucketNode<V> mn = this.bucket(this.firstBucket());
+    this.last = mn.key;
+    this.remove(mn);
+    return mn.value;
+  }
+
+  /**
+   * Finds the first non-empty bucket, starting at the one of the last extracted minimum.
+   * The queue must not be empty.
+   * @return index of the bucket
+   */
+  private int firstBucket() {
+    final BucketNode<?>[] bs = this.buckets;
+    int b = this.index(this.last);
+    while(bs[b] == null) {
+      if(++b == bs.length) {
+        b = 0;
+      }
+    }
+    return b;
+  }
+
+  /**
+   * Returns the index of the bucket for the given key.
+   * @param k key
+   * @return index of the bucket
+   */
+  private int index(final long k) {
+    return (int) (k % this.buckets.length);
+  }
+
+  /**
+   * Returns the first node of the given bucket.
+   * @param b bucket index
+   * @return first node, {@code null} if the bucket is empty
+   */
+  @SuppressWarnings("unchecked")
+  private BucketNode<V> bucket(final int b) {
+    return (BucketNode<V>) this.buckets[b];
+  }
+
+  /**
+   * Inserts the given unlinked node into the bucket for its key.
+   * @param node node to insert
+   */
+  private void push(final BucketNode<V> node) {
+    final int b = this.index(node.key);
+    final BucketNode<V> fst = this.bucket(b);
+    node.prev = null;
+    node.next = fst;
+    if(fst != null) {
+      fst.prev = node;
+    }
+    this.buckets[b] = node;
+  }
+
+  /**
+   * Unlinks the given node from its bucket.
+   * @param node node to unlink
+   */
+  private void unlink(final BucketNode<V> node) {
+    if(node.prev == null) {
+      this.buckets[this.index(node.key)] = node.next;
+    } else {
+      node.prev.next = node.next;
+    }
+    if(node.next != null) {
+      node.next.prev = node.prev;
+    }
+    node.prev = node.next = null;
+  }
+
+  /**
+   * Removes the given node from this queue and invalidates it.
+   * @param node node to remove
+   */
+  private void remove(final BucketNode<V> node) {
+    this.unlink(node);
+    node.queue = null;
+    this.size--;
+  }
+
+  /**
+   * Checks that the given key can be inserted into this queue.
+   * @param k key
+   * @throws IllegalArgumentException if the key is outside of the allowed range
+   */
+  private void checkKey(final long k) {
+    if(k < this.last) {
+      throw new IllegalArgumentException("key is smaller than the last extracted minimum: " + k);
+    }
+    if(k - this.last > this.maxWeight) {
+      throw new IllegalArgumentException("key exceeds the last extracted minimum by more than "
+          + this.maxWeight + ": " + k);
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("BucketQueue[last=").append(this.last);
+    for(int i = 0; i < this.buckets.length; i++) {
+      final BucketNode<V> fst = this.bucket(this.index(this.last + i));
+      if(fst != null) {
+        sb.append(", ").append(fst.key).append(':');
+        for(BucketNode<V> n = fst; n != null; n = n.next) {
+          sb.append(' ').append(n.value);
+        }
+      }
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * A node in a {@link BucketQueue}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   */
+  public static final class BucketNode<V> {
+    /** Queue of this node, {@code null} if the node was removed. */
+    BucketQueue<V> queue;
+    /** Previous node in the bucket, {@code null} for the first one. */
+    BucketNode<V> prev;
+    /** Next node in the bucket, {@code null} for the last one. */
+    BucketNode<V> next;
+    /** Current key. */
+    long key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param queue queue of this node
+     * @param key priority
+     * @param value value
+     */
+    BucketNode(final BucketQueue<V> queue, final long key, final V value) {
+      this.queue = queue;
+      this.key = key;
+      this.value = value;
+    }
+
+    /**
+     * Getter for this node's current key.
+     * @return the key currently associated with this node
+     */
+    public long getKeyAsLong() {
+      return this.key;
+    }
+
+    /**
+     * Getter for this node's value.
+     * @return the value associated with this node
+     */
+    public V getValue() {
+      return this.value;
+    }
+
+    /**
+     * Checks if this entry is still contained in its queue.
+     * @return result of check
+     */
+    public boolean isValid() {
+      return this.queue != null;
+    }
+
+    /**
+     * Decreases this node's key by moving it to the bucket of the new key. <em>O(1)</em>
+     * @param newKey new, smaller key, not smaller than the last extracted minimum
+     * @throws IllegalStateException if the node is no longer contained in its queue
+     * @throws IllegalArgumentException if the new key is greater that the old one or smaller
+     *   than the last extracted minimum
+     */
+    public void decreaseKey(final long newKey) {
+      final BucketQueue<V> q = this.checkValid();
+      if(newKey > this.key) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+      q.checkKey(newKey);
+      q.unlink(this);
+      this.key = newKey;
+      q.push(this);
+    }
+
+    /**
+     * Removes this node from its queue. <em>O(1)</em>
+     * @throws IllegalStateException if the node is no longer contained in its queue
+     */
+    public void delete() {
+      this.checkValid().remove(this);
+    }
+
+    /**
+     * Checks that this node is still contained in its queue and returns that queue.
+     * @return the queue
+     * @throws IllegalStateException if the node is no longer contained in its queue
+     */
+    private BucketQueue<V> checkValid() {
+      if(this.queue == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      return this.queue;
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package de.woerteler.fibheap;
+
+/**
+ * Strategies for consolidating the root list of a fibonacci heap, selected with
+ * {@code setConsolidationMode(ConsolidationMode)}.
+ * @author Leo Woerteler
+ */
+public enum ConsolidationMode {
+  /**
+   * New roots are only collected and the whole root list is consolidated when the minimum is
+   * removed. This is the fastest mode on average, but a single {@code extractMin()} after many
+   * insertions takes time linear in their number.
+   */
+  LAZY,
+  /**
+   * Every new root is immediately linked with the root of the same degree, like a carry in a
+   * binary counter, so that no two roots ever have the same degree. The root list has at most
+   * <em>O(log n)</em> entries and {@code extractMin()} takes <em>O(log n)</em> time in the worst
+   * case, while insertions and cuts stay <em>O(1)</em> amortized.
+   */
+  EAGER,
+  /**
+   * Like {@link #EAGER} for single entries, but roots that are added in bulk by
+   * {@code insertAll()}, {@code meld()} or by switching the mode are left pending and only
+   * consolidated a bounded number of steps per operation, carrying the degree table across calls.
+   * Pending roots can also be consolidated with {@code maintenance(int)}, e.g. while the caller
+   * is idle. The minimum is always correct, but if the smallest pending root is removed or its
+   * key is increased before it was consolidated, the next {@code extractMin()} has to
+   * consolidate all pending roots.
+   */
+  INCREMENTAL
+}
@@ -0,0 +1,161 @@
+package de.woerteler.fibheap;
+
+/**
+ * A priority queue implemented as a fibonacci heap with primitive {@code double} keys.
+ * Keys are compared with {@code <}, so neither boxing nor a {@link java.util.Comparator} is
+ * involved in any operation.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ */
+public final class DoubleFibHeap<V> extends AbstractFibHeap<DoubleFibHeap.DoubleFibNode<V>> {
+  /** Private constructor, use {@link #newHeap()} instead. */
+  private DoubleFibHeap() {
+  }
+
+  /**
+   * Creates a new fibonacci heap with {@code double} keys.
+   * @param <V> value type
+   * @return a new fibonacci heap
+   */
+  public static <V> DoubleFibHeap<V> newHeap() {
+    return new DoubleFibHeap<>();
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   * @throws IllegalArgumentException if the key is {@code NaN}
+   */
+  public DoubleFibNode<V> insert(final V v, final double k) {
+    checkKey(k);
+    final DoubleFibNode<V> node = new DoubleFibNode<>(this, k, v);
+    this.insertNode(node);
+    return node;
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap.
+   * <em>O(log n)*</em>
+   * @return the value if the heap was not empty, {@code null} otherwise
+   * @throws IllegalStateException if the heap is empty
+   */
+  public V extractMin() {
+    return this.removeMin().value;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its nodes belong to this heap. <em>O(1)</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same
+   */
+  public void meld(final DoubleFibHeap<V> other) {
+    this.absorb(other);
+  }
+
+  @Override
+  boolean less(final DoubleFibNode<V> a, final DoubleFibNode<V> b) {
+    return a.key < b.key;
+  }
+
+  /**
+   * Checks that the given key can be ordered by {@code <}.
+   * @param k key to check
+   * @throws IllegalArgumentException if the key is {@code NaN}
+   */
+  static void checkKey(final double k) {
+    if(k != k) {
+      throw new IllegalArgumentException("key is NaN");
+    }
+  }
+
+  /**
+   * A node in a {@link DoubleFibHeap}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   */
+  public static final class DoubleFibNode<V> extends AbstractFibHeap.Node<DoubleFibNode<V>> {
+    /** Current key. */
+    double key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     * @param key priority
+     * @param value value
+     */
+    DoubleFibNode(final DoubleFibHeap<V> heap, final double key, final V value) {
+      super(heap);
+      this.key = key;
+      this.value = value;
+    }
+
+    /**
+     * Getter for this node's current key.
+     * @return the key currently associated with this node
+     */
+    public double getKeyAsDouble() {
+      return this.key;
+    }
+
+    /**
+     * Getter for this node's value.
+     * @return the value associated with this node
+     */
+    public V getValue() {
+      return this.value;
+    }
+
+    /**
+     * Decreases this node's key in its heap. <em>O(1)*</em>
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one or
+     *   {@code NaN}
+     */
+    public void decreaseKey(final double newKey) {
+      final AbstractFibHeap<DoubleFibNode<V>> hp = this.checkValid();
+      checkKey(newKey);
+      if(newKey > this.key) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+
+      this.key = newKey;
+      hp.decreased(this);
+    }
+
+    /**
+     * Increases this node's key in its heap by cutting it from its parent and moving its
+     * children to the root list. <em>O(log n)*</em>
+     * @param newKey new, greater key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is smaller that the old one or
+     *   {@code NaN}
+     */
+    public void increaseKey(final double newKey) {
+      final AbstractFibHeap<DoubleFibNode<V>> hp = this.checkValid();
+      checkKey(newKey);
+      if(newKey < this.key) {
+        throw new IllegalArgumentException("new key is smaller than old one");
+      }
+
+      this.key = newKey;
+      hp.increased(this);
+    }
+
+    @Override
+    void appendEntry(final StringBuilder sb) {
+      sb.append(this.key).append(", ").append(this.value);
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
@@ -0,0 +1,446 @@
+package de.woerteler.fibheap;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+import de.woerteler.fibheap.FibHeap.FibNode;
+
+/**
+ * An unbounded, thread-safe {@link BlockingQueue} backed by a {@link FibHeap}.
+ * Producers never take the heap's lock: they only create a node and append it to a lock-free
+ * staging buffer. Consumers fold all staged nodes into the heap's root list in a single
+ * <em>O(k)</em> splice before they access the heap, so the lock is only held for the heap
+ * operations themselves. Elements inserted with {@link #offerHandle(Object)} can later be
+ * replaced by smaller ones through their {@link Handle}.
+ * @author Leo Woerteler
+ *
+ * @param <E> element type
+ */
+public final class FibBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+  /** Backing heap, the elements are stored as keys, only accessed while holding the lock. */
+  private final FibHeap<E, E> heap;
+  /** Comparator, {@code null} for the natural ordering. */
+  private final Comparator<? super E> comp;
+  /** Nodes that were offered but not yet inserted into the heap. */
+  private final ConcurrentLinkedQueue<FibNode<E, E>> staged = new ConcurrentLinkedQueue<>();
+  /** Lock guarding the heap. */
+  private final ReentrantLock lock = new ReentrantLock();
+  /** Condition for consumers waiting for elements. */
+  private final Condition notEmpty = this.lock.newCondition();
+  /** Number of consumers waiting on {@link #notEmpty}. */
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  /**
+   * Creates a queue that orders its elements according to their natural ordering.
+   */
+  public FibBlockingQueue() {
+    this(null);
+  }
+
+  /**
+   * Creates a queue that orders its elements according to the given comparator.
+   * @param comp the comparator, {@code null} for the natural ordering
+   */
+  public FibBlockingQueue(final Comparator<? super E> comp) {
+    if(comp == null) {
+      this.heap = FibHeap.newNaturalHeap();
+    } else {
+      @SuppressWarnings("unchecked")
+      final Comparator<E> cmp = (Comparator<E>) comp;
+      this.heap = FibHeap.newHeap(cmp);
+    }
+    this.comp = comp;
+  }
+
+  /**
+   * Returns the comparator used to order the elements.
+   * @return the comparator, {@code null} for the natural ordering
+   */
+  public Comparator<? super E> comparator() {
+    return this.comp;
+  }
+
+  @Override
+  public boolean offer(final E e) {
+    this.stage(e);
+    return true;
+  }
+
+  /**
+   * Inserts the given element into this queue and returns a handle for it, which can be used to
+   * replace the element with a smaller one or to remove it. Like {@link #offer(Object)} this
+   * method never blocks and does not take the queue's lock unless a consumer is waiting.
+   * @param e element to insert
+   * @return the element's handle
+   * @throws NullPointerException if the element is {@code null}
+   */
+  public Handle<E> offerHandle(final E e) {
+    return new Handle<>(this, this.stage(e));
+  }
+
+  @Override
+  public void put(final E e) {
+    this.offer(e);
+  }
+
+  @Override
+  public boolean offer(final E e, final long timeout, final TimeUnit unit) {
+    return this.offer(e);
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public E poll() {
+    final ReentrantLock lk = this.lock;
+    lk.lock();
+    try {
+      this.fold();
+      return this.heap.isEmpty() ? null : this.extract();
+    } finally {
+      lk.unlock();
+    }
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    final ReentrantLock lk = this.lock;
+    lk.lockInterruptibly();
+    try {
+      this.await(false, 0);
+      return this.extract();
+    } finally {
+      lk.unlock();
+    }
+  }
+
+  @Override
+  public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final ReentrantLock lk = this.lock;
+    lk.lockInterruptibly();
+    try {
+      return this.await(true, unit.toNanos(timeout)) ? this.extract() : null;
+    } finally {
+      lk.unlock();
+    }
+  }
+
+  @Override
+  public E peek() {
+    final ReentrantLock lk = this.lock;
+    lk.lock();
+    try {
+      this.fold();
+      final FibNode<E, E> min = this.heap.getMin();
+      return min == null ? null : min.key;
+    } finally {
+      lk.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    final ReentrantLock lk = this.lock;
+    lk.lock();
+    try {
+      this.fold();
+      return this.heap.size();
+    } finally {
+      lk.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    if(o != null) {
+      final ReentrantLock lk = this.lock;
+      lk.lock();
+      try {
+        this.fold();
+        for(final FibNode<E, E> node : this.heap.nodes()) {
+          if(o.equals(node.key)) {
+            node.delete();
+            return true;
+          }
+        }
+      } finally {
+        lk.unlock();
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int drainTo(final Collection<? super E> c) {
+    return this.drainTo(c, Integer.MAX_VALUE);
+  }
+
+  /**
+   * {@inheritDoc} The elements are removed from the heap in a single batch while holding the
+   * lock, see {@link FibHeap#drainTo(Collection, int)}, and added to the collection afterwards
+   * in ascending order.
+   */
+  @Override
+  public int drainTo(final Collection<? super E> c, final int maxElements) {
+    if(c == this) {
+      throw new IllegalArgumentException("cannot drain a queue into itself");
+    }
+    Objects.requireNonNull(c);
+    if(maxElements <= 0) {
+      return 0;
+    }
+
+    final ArrayList<FibNode<E, E>> nodes = new ArrayList<>();
+    final ReentrantLock lk = this.lock;
+    lk.lock();
+    try {
+      this.fold();
+      this.heap.removeMins(maxElements, null, nodes);
+    } finally {
+      lk.unlock();
+    }
+    for(final FibNode<E, E> node : nodes) {
+      c.add(node.key);
+    }
+    return nodes.size();
+  }
+
+  /**
+   * Returns an iterator over a snapshot of the elements in this queue, in no particular order.
+   * The iterator is weakly consistent, it supports {@link Iterator#remove()} and skips elements
+   * that were removed from the queue since its creation.
+   * @return the iterator
+   */
+  @Override
+  public Iterator<E> iterator() {
+    final ArrayList<FibNode<E, E>> snapshot;
+    final ReentrantLock lk = this.lock;
+    lk.lock();
+    try {
+      this.fold();
+      snapshot = this.heap.nodes();
+    } finally {
+      lk.unlock();
+    }
+
+    final Iterator<FibNode<E, E>> nodes = snapshot.iterator();
+    return new Iterator<E>() {
+      /** Node that is returned next, {@code null} if not computed yet. */
+      private FibNode<E, E> next;
+      /** Node that was returned last. */
+      private FibNode<E, E> last;
+
+      @Override
+      public boolean hasNext() {
+        while(this.next == null && nodes.hasNext()) {
+          final FibNode<E, E> node = nodes.next();
+          lk.lock();
+          try {
+            if(node.isValid()) {
+              this.next = node;
+            }
+          } finally {
+            lk.unlock();
+          }
+        }
+        return this.next != null;
+      }
+
+      @Override
+      public E next() {
+        if(!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        this.last = this.next;
+        this.next = null;
+        return this.last.key;
+      }
+
+      @Override
+      public void remove() {
+        if(this.last == null) {
+          throw new IllegalStateException();
+        }
+        lk.lock();
+        try {
+          if(this.last.isValid()) {
+            this.last.delete();
+          }
+        } finally {
+          lk.unlock();
+        }
+        this.last = null;
+      }
+    };
+  }
+
+  /**
+   * Creates a node for the given element and appends it to the staging buffer.
+   * If a consumer is waiting, one of them is woken up.
+   * @param e element
+   * @return the new node
+   * @throws NullPointerException if the element is {@code null}
+   */
+  private FibNode<E, E> stage(final E e) {
+    final FibNode<E, E> node = new FibNode<>(this.heap, Objects.requireNonNull(e), e);
+    this.staged.offer(node);
+    // the consumer registers itself before checking the buffer, so it either sees the node
+    // or we see the consumer
+    if(this.waiting.get() > 0) {
+      final ReentrantLock lk = this.lock;
+      lk.lock();
+      try {
+        this.notEmpty.signal();
+      } finally {
+        lk.unlock();
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Inserts all staged nodes into the heap, the lock must be held.
+   */
+  private void fold() {
+    if(!this.staged.isEmpty()) {
+      this.heap.insertNodes(this.staged);
+    }
+  }
+
+  /**
+   * Waits until the heap is non-empty, the lock must be held.
+   * @param timed flag for waiting at most {@code nanos} nanoseconds
+   * @param nanos maximum time to wait
+   * @return {@code true} if the heap is non-empty, {@code false} if the time elapsed
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  private boolean await(final boolean timed, final long nanos) throws InterruptedException {
+    this.fold();
+    if(!this.heap.isEmpty()) {
+      return true;
+    }
+
+    long remaining = nanos;
+    this.waiting.incrementAndGet();
+    try {
+      for(;;) {
+        this.fold();
+        if(!this.heap.isEmpty()) {
+          return true;
+        }
+        if(!timed) {
+          this.notEmpty.await();
+        } else if(remaining > 0) {
+          remaining = this.notEmpty.awaitNanos(remaining);
+        } else {
+          return false;
+        }
+      }
+    } finally {
+      this.waiting.decrementAndGet();
+    }
+  }
+
+  /**
+   * Extracts the minimum from the non-empty heap, the lock must be held. If more elements are
+   * left and consumers are waiting, one of them is woken up.
+   * @return the minimal element
+   */
+  private E extract() {
+    final FibNode<E, E> min = this.heap.getMin();
+    this.heap.extractMin();
+    if(this.waiting.get() > 0 && !(this.heap.isEmpty() && this.staged.isEmpty())) {
+      this.notEmpty.signal();
+    }
+    return min.key;
+  }
+
+  /**
+   * Handle for an element of a {@link FibBlockingQueue}. All operations take the queue's lock.
+   * @author Leo Woerteler
+   *
+   * @param <E> element type
+   */
+  public static final class Handle<E> {
+    /** Queue of this handle. */
+    private final FibBlockingQueue<E> queue;
+    /** Node in the backing heap, possibly still staged. */
+    private final FibNode<E, E> node;
+
+    /**
+     * Constructor.
+     * @param queue queue of this handle
+     * @param node node in the backing heap
+     */
+    Handle(final FibBlockingQueue<E> queue, final FibNode<E, E> node) {
+      this.queue = queue;
+      this.node = node;
+    }
+
+    /**
+     * Getter for the element currently associated with this handle.
+     * @return the element
+     */
+    public E getElement() {
+      final ReentrantLock lk = this.queue.lock;
+      lk.lock();
+      try {
+        return this.node.key;
+      } finally {
+        lk.unlock();
+      }
+    }
+
+    /**
+     * Checks if this handle's element is still contained in the queue.
+     * @return result of check
+     */
+    public boolean isValid() {
+      final ReentrantLock lk = this.queue.lock;
+      lk.lock();
+      try {
+        return this.node.isValid();
+      } finally {
+        lk.unlock();
+      }
+    }
+
+    /**
+     * Replaces this handle's element with a smaller one. <em>O(1)*</em>
+     * @param e new, smaller element
+     * @throws NullPointerException if the element is {@code null}
+     * @throws IllegalStateException if the element is no longer contained in the queue
+     * @throws IllegalArgumentException if the new element is greater than the old one
+     */
+    public void decreaseKey(final E e) {
+      Objects.requireNonNull(e);
+      final ReentrantLock lk = this.queue.lock;
+      lk.lock();
+      try {
+        this.queue.fold();
+        this.node.decreaseKey(e);
+      } finally {
+        lk.unlock();
+      }
+    }
+
+    /**
+     * Removes this handle's element from the queue. <em>O(log n)*</em>
+     * @throws IllegalStateException if the element is no longer contained in the queue
+     */
+    public void delete() {
+      final ReentrantLock lk = this.queue.lock;
+      lk.lock();
+      try {
+        this.queue.fold();
+        this.node.delete();
+      } finally {
+        lk.unlock();
+      }
+    }
+  }
+}
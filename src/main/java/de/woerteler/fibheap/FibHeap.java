@@ -8,7 +8,8 @@ import java.util.*;
  * @param <P> priority type
  * @param <V> value type
  */
-public final class FibHeap<V, P> {
+public final class FibHeap<V, P> extends AbstractFibHeap<FibHeap.FibNode<V, P>>
+    implements AddressableHeap<V, P> {
   /** Comparator for {@link Comparable} types. */
   private static final Comparator<Comparable<Object>> COMP_COMP =
     new Comparator<Comparable<Object>>() {
@@ -20,8 +21,6 @@ public final class FibHeap<V, P> {
 
   /** Key comparator. */
   private final Comparator<P> comp;
-  /** Minimum node, {@code null} if the heap is empty. */
-  private FibNode<V, P> min;
 
   /**
    * Constructor taking a comparator for the keys.
@@ -51,17 +50,79 @@ public final class FibHeap<V, P> {
    * @return a new fibonacci heap
    */
   public static <V, P extends Comparable<P>> FibHeap<V, P> newComparableHeap() {
+    return new FibHeap<>(FibHeap.<P>naturalOrder());
+  }
+
+  /**
+   * Creates a new fibonacci heap whose priorities are assumed to be {@link Comparable}.
+   * Comparing incomparable priorities results in a {@link ClassCastException}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @return a new fibonacci heap
+   */
+  static <V, P> FibHeap<V, P> newNaturalHeap() {
+    return new FibHeap<>(FibHeap.<P>naturalOrder());
+  }
+
+  /**
+   * Returns a comparator for priorities that are assumed to be {@link Comparable}.
+   * @param <P> priority type
+   * @return the comparator
+   */
+  static <P> Comparator<P> naturalOrder() {
     @SuppressWarnings("unchecked")
-    final Comparator<P> comp = (Comparator<P>) COMP_COMP;
-    return new FibHeap<>(comp);
+    final Comparator<P> comp = (Comparator<P>) (Comparator<?>) COMP_COMP;
+    return comp;
   }
 
   /**
-   * Tests if this heap is empty.
-   * @return {@code true} if the heap is empty, {@code false} otherwise
+   * Creates a new fibonacci heap containing the given entries, see
+   * {@link #insertAll(Object[], Object[], FibNode[])}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @param values values to insert
+   * @param keys keys of the values, at the same positions
+   * @return a new fibonacci heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public static <V, P> FibHeap<V, P> of(final Comparator<P> comp, final V[] values,
+      final P[] keys) {
+    final FibHeap<V, P> heap = newHeap(comp);
+    heap.insertAll(values, keys, null);
+    return heap;
+  }
+
+  /**
+   * Creates a new fibonacci heap for {@link Comparable} priorities containing the given entries,
+   * see {@link #insertAll(Object[], Object[], FibNode[])}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param values values to insert
+   * @param keys keys of the values, at the same positions
+   * @return a new fibonacci heap
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public static <V, P extends Comparable<P>> FibHeap<V, P> of(final V[] values, final P[] keys) {
+    final FibHeap<V, P> heap = newComparableHeap();
+    heap.insertAll(values, keys, null);
+    return heap;
+  }
+
+  /**
+   * Creates a new fibonacci heap for {@link Comparable} priorities containing the given entries,
+   * see {@link #insertAll(Map)}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param entries map from values to their keys
+   * @return a new fibonacci heap
    */
-  public boolean isEmpty() {
-    return this.min == null;
+  public static <V, P extends Comparable<P>> FibHeap<V, P> of(
+      final Map<? extends V, ? extends P> entries) {
+    final FibHeap<V, P> heap = newComparableHeap();
+    heap.insertAll(entries);
+    return heap;
   }
 
   /**
@@ -70,21 +131,88 @@ public final class FibHeap<V, P> {
    * @param k key to insert
    * @return the inserted entry
    */
+  @Override
   public FibNode<V, P> insert(final V v, final P k) {
     final FibNode<V, P> node = new FibNode<>(this, k, v);
-    this.insertIntoRootList(node);
-    if(node != this.min && this.comp.compare(node.key, this.min.key) < 0) {
-      this.min = node;
-    }
+    this.insertNode(node);
     return node;
   }
 
   /**
-   * Gets the entry currently at the top of this heap. <em>O(1)</em>
-   * @return a minimal entry if the queue is non-empty, {@code null} otherwise
+   * Inserts all given entries into this heap. The new nodes are linked into a list and spliced
+   * into the root list in one step, the minimum is updated with a single pass over the new keys.
+   * <em>O(k)</em> where <em>k</em> is the number of new entries
+   * @param values values to insert
+   * @param keys keys of the values, at the same positions
+   * @param nodes array that the inserted nodes are stored in at the same positions as their
+   *   values, may be {@code null}
+   * @throws IllegalArgumentException if the arrays differ in length or {@code nodes} is too short
    */
-  public FibNode<V, P> getMin() {
-    return this.min;
+  public void insertAll(final V[] values, final P[] keys, final FibNode<V, P>[] nodes) {
+    final int n = values.length;
+    if(keys.length != n || nodes != null && nodes.length < n) {
+      throw new IllegalArgumentException("array lengths differ");
+    }
+    if(n == 0) {
+      return;
+    }
+
+    FibNode<V, P> last = null, mn = null;
+    for(int i = 0; i < n; i++) {
+      last = this.append(last, values[i], keys[i]);
+      if(mn == null || this.less(last, mn)) {
+        mn = last;
+      }
+      if(nodes != null) {
+        nodes[i] = last;
+      }
+    }
+    this.insertList(mn, n);
+  }
+
+  /**
+   * Inserts all entries of the given map into this heap, using the map's keys as values and its
+   * values as keys. See {@link #insertAll(Object[], Object[], FibNode[])} for details.
+   * <em>O(k)</em> where <em>k</em> is the number of new entries
+   * @param entries map from values to their keys
+   */
+  public void insertAll(final Map<? extends V, ? extends P> entries) {
+    FibNode<V, P> last = null, mn = null;
+    int n = 0;
+    for(final Map.Entry<? extends V, ? extends P> e : entries.entrySet()) {
+      last = this.append(last, e.getKey(), e.getValue());
+      if(mn == null || this.less(last, mn)) {
+        mn = last;
+      }
+      n++;
+    }
+    if(mn != null) {
+      this.insertList(mn, n);
+    }
+  }
+
+  /**
+   * Removes all nodes from the given queue and inserts them into this heap in one step, see
+   * {@link #insertAll(Object[], Object[], FibNode[])}. The nodes must have been created for
+   * this heap and must not be linked to any other node. <em>O(k)</em> where <em>k</em> is the
+   * number of nodes
+   * @param nodes queue of new nodes
+   * @return number of inserted nodes
+   */
+  int insertNodes(final Queue<FibNode<V, P>> nodes) {
+    FibNode<V, P> last = null, mn = null;
+    int n = 0;
+    for(FibNode<V, P> node; (node = nodes.poll()) != null; n++) {
+      link(last, node);
+      last = node;
+      if(mn == null || this.less(node, mn)) {
+        mn = node;
+      }
+    }
+    if(mn != null) {
+      this.insertList(mn, n);
+    }
+    return n;
   }
 
   /**
@@ -93,136 +221,126 @@ public final class FibHeap<V, P> {
    * @return the value if the heap was not empty, {@code null} otherwise
    * @throws IllegalStateException if the heap is empty
    */
+  @Override
   public V extractMin() {
-    final FibNode<V, P> mn = this.min;
-    if(mn == null) {
-      throw new IllegalStateException("empty heap");
-    }
+    return this.removeMin().value;
+  }
 
-    // remove node from root list
-    if(mn.right == mn) {
-      this.min = null;
-    } else {
-      mn.left.right = mn.right;
-      mn.right.left = mn.left;
-      this.min = mn.right;
-    }
-    mn.left = mn.right = mn;
-
-    // remove children
-    final FibNode<V, P> fst = mn.firstChild;
-    mn.firstChild = null;
-
-    if(fst != null) {
-      // add children to root list
-      FibNode<V, P> curr = fst;
-      do {
-        final FibNode<V, P> next = curr.right;
-        curr.parent = null;
-        this.insertIntoRootList(curr);
-        curr = next;
-      } while(curr != fst);
+  /**
+   * Extracts the values with the {@code k} smallest keys from this heap and adds them to the
+   * given collection in ascending order of their keys. The root list is consolidated only once
+   * instead of after every single value. <em>O(r + k log(r + k))*</em> where <em>r</em> is the
+   * length of the root list
+   * @param k maximum number of values to extract
+   * @param sink collection to add the values to
+   * @return number of extracted values, less than {@code k} if the heap became empty
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public int extractMin(final int k, final Collection<? super V> sink) {
+    // a negative k is rejected by removeMins(...)
+    final ArrayList<FibNode<V, P>> nodes = new ArrayList<>(Math.max(0, Math.min(k, this.size())));
+    final int n = this.removeMins(k, null, nodes);
+    for(final FibNode<V, P> node : nodes) {
+      sink.add(node.value);
     }
+    return n;
+  }
 
-    // consolidate the root list
-    if(!this.isEmpty()) {
-      this.consolidate();
+  /**
+   * Extracts all values whose keys are smaller than or equal to the given bound and adds them to
+   * the given collection in ascending order of their keys. Only the sub-trees whose roots
+   * satisfy the bound are visited and the root list is consolidated once at the end.
+   * <em>O(r + k log(r + k))*</em> where <em>r</em> is the length of the root list and <em>k</em>
+   * the number of extracted values
+   * @param bound largest key to extract
+   * @param sink collection to add the values to
+   * @return number of extracted values
+   */
+  public int extractUpTo(final P bound, final Collection<? super V> sink) {
+    final ArrayList<FibNode<V, P>> nodes = new ArrayList<>();
+    final int n = this.removeMins(Integer.MAX_VALUE, new FibNode<V, P>(this, bound, null), nodes);
+    for(final FibNode<V, P> node : nodes) {
+      sink.add(node.value);
     }
+    return n;
+  }
 
-    // invalidate and return the root entry
-    mn.heap = null;
-    return mn.value;
+  /**
+   * Extracts up to {@code max} values from this heap and adds them to the given collection in
+   * ascending order of their keys, see {@link #extractMin(int, Collection)}.
+   * @param sink collection to add the values to
+   * @param max maximum number of values to extract
+   * @return number of extracted values
+   * @throws IllegalArgumentException if {@code max} is negative
+   */
+  public int drainTo(final Collection<? super V> sink, final int max) {
+    return this.extractMin(max, sink);
   }
 
-  @Override
-  public String toString() {
-    final StringBuilder sb = new StringBuilder("FibHeap[");
-    if(this.min != null) {
-      sb.append('\n');
-      FibNode<V, P> curr = this.min;
-      do {
-        curr.toString(sb, 1);
-        curr = curr.right;
-      } while(curr != this.min);
-    }
-    return sb.append(']').toString();
+  /**
+   * Extracts all values from this heap and adds them to the given collection in ascending order
+   * of their keys, see {@link #extractMin(int, Collection)}.
+   * @param sink collection to add the values to
+   * @return number of extracted values
+   */
+  public int drainTo(final Collection<? super V> sink) {
+    return this.extractMin(this.size(), sink);
   }
 
   /**
-   * Inserts the given node into the root list. <em>O(1)</em>
-   * @param nd node to insert
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its nodes belong to this heap. <em>O(1)</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same or their keys are ordered
+   *   by different comparators
    */
-  private void insertIntoRootList(final FibNode<V, P> nd) {
-    final FibNode<V, P> mn = this.min;
-    if(mn == null) {
-      nd.left = nd.right = nd;
-      this.min = nd;
-    } else {
-      nd.left = mn;
-      nd.right = mn.right;
-      mn.right.left = nd;
-      mn.right = nd;
+  public void meld(final FibHeap<V, P> other) {
+    if(!this.comp.equals(other.comp)) {
+      throw new IllegalArgumentException("heaps use different comparators");
+    }
+    this.absorb(other);
+  }
+
+  @Override
+  public void meld(final AddressableHeap<V, P> other) {
+    if(!(other instanceof FibHeap)) {
+      throw new IllegalArgumentException("cannot meld heaps of different types");
     }
+    this.meld((FibHeap<V, P>) other);
   }
 
   /**
-   * Consolidates the root list after a call to {@link #extractMin()}.<br/>
-   * <em>O(r)</em> where <em>r</em> is the length of the root list
+   * Creates a new node and appends it to the given circular list of new nodes.
+   * @param last last node of the list, {@code null} if the list is empty
+   * @param v value
+   * @param k key
+   * @return the new node, which is the new last node of the list
    */
-  private void consolidate() {
-    final ArrayList<FibNode<V, P>> degrees = new ArrayList<>();
-    final FibNode<V, P> fst = this.min;
-    this.min = null;
-
-    // go through the root list and merge nodes with the same degree
-    FibNode<V, P> curr = fst;
-    do {
-      final FibNode<V, P> next = curr.right;
-      FibNode<V, P> other;
-      int d = curr.degree;
-      while(d < degrees.size() && (other = degrees.set(d, null)) != null) {
-        // the smaller key goes on top
-        if(comp.compare(other.key, curr.key) < 0) {
-          final FibNode<V, P> temp = curr;
-          curr = other;
-          other = temp;
-        }
-
-        // add `other` as a child to `curr`
-        other.parent = curr;
-        final FibNode<V, P> fstChild = curr.firstChild;
-        if(fstChild == null) {
-          curr.firstChild = other;
-          other.left = other.right = other;
-        } else {
-          other.left = fstChild;
-          other.right = fstChild.right;
-          fstChild.right.left = other;
-          fstChild.right = other;
-        }
-        curr.degree = ++d;
-      }
+  private FibNode<V, P> append(final FibNode<V, P> last, final V v, final P k) {
+    final FibNode<V, P> node = new FibNode<>(this, k, v);
+    link(last, node);
+    return node;
+  }
 
-      // insert the new node
-      while(degrees.size() <= d) {
-        degrees.add(null);
-      }
-      degrees.set(d, curr);
-
-      curr = next;
-    } while(curr != fst);
-
-    // re-add all nodes to the root list and update the minimum
-    FibNode<V, P> mn = null;
-    for(final FibNode<V, P> nd : degrees) {
-      if(nd != null) {
-        this.insertIntoRootList(nd);
-        if(mn == null || this.comp.compare(nd.key, mn.key) < 0) {
-          mn = nd;
-        }
-      }
+  /**
+   * Appends the given single node to a circular list of new nodes.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param last last node of the list, {@code null} if the list is empty
+   * @param node node to append
+   */
+  private static <V, P> void link(final FibNode<V, P> last, final FibNode<V, P> node) {
+    if(last != null) {
+      node.left = last;
+      node.right = last.right;
+      last.right.left = node;
+      last.right = node;
     }
-    this.min = mn;
+  }
+
+  @Override
+  boolean less(final FibNode<V, P> a, final FibNode<V, P> b) {
+    return this.comp.compare(a.key, b.key) < 0;
   }
 
   /**
@@ -231,29 +349,13 @@ public final class FibHeap<V, P> {
    * @param <V> value type
    * @param <P> priority type
    */
-  public static final class FibNode<V, P> {
-    /** This node's heap. */
-    private FibHeap<V, P> heap;
-
+  public static final class FibNode<V, P> extends AbstractFibHeap.Node<FibNode<V, P>>
+      implements AddressableHeap.Handle<V, P> {
     /** Current key. */
     P key;
     /** Value. */
     final V value;
 
-    /** Parent pointer, {@code null} if the node is in the root list. */
-    FibNode<V, P> parent;
-    /** Pointer to some child, {@code null} iff {@link #degree} is {@code 0}. */
-    FibNode<V, P> firstChild;
-    /** Pointer to this node's left sibling (non-{@code null}, can be {@code this}). */
-    FibNode<V, P> left = this;
-    /** Pointer to this node's left sibling (non-{@code null}, can be {@code this}). */
-    FibNode<V, P> right = this;
-
-    /** Flag for nodes that already lost a child. */
-    private boolean lost;
-    /** Number of children. */
-    int degree;
-
     /**
      * Constructor.
      * @param heap heap of this node
@@ -261,7 +363,7 @@ public final class FibHeap<V, P> {
      * @param value value
      */
     FibNode(final FibHeap<V, P> heap, final P key, final V value) {
-      this.heap = heap;
+      super(heap);
       this.key = key;
       this.value = value;
     }
@@ -270,6 +372,7 @@ public final class FibHeap<V, P> {
      * Getter for this node's current key.
      * @return the key currently associated with this node
      */
+    @Override
     public P getKey() {
       return this.key;
     }
@@ -278,105 +381,53 @@ public final class FibHeap<V, P> {
      * Getter for this node's value.
      * @return the value associated with this node
      */
+    @Override
     public V getValue() {
       return this.value;
     }
 
-    /**
-     * Checks if this entry is still contained in its heap.
-     * @return result of check
-     */
-    public boolean isValid() {
-      return this.heap != null;
-    }
-
     /**
      * Decreases this node's key in its heap. <em>O(1)*</em>
      * @param newKey new, smaller key
      * @throws IllegalStateException if the node is no longer contained in its heap
      * @throws IllegalArgumentException if the new key is greater that the old one
      */
+    @Override
     public void decreaseKey(final P newKey) {
-      if(this.heap == null) {
-        throw new IllegalStateException("node is not valid");
-      }
-
-      final Comparator<P> comp = this.heap.comp;
-      if(comp.compare(newKey, this.key) > 0) {
+      final FibHeap<V, P> hp = (FibHeap<V, P>) this.checkValid();
+      if(hp.comp.compare(newKey, this.key) > 0) {
         throw new IllegalArgumentException("new key is greater than old one");
       }
 
       this.key = newKey;
+      hp.decreased(this);
+    }
 
-      if(this.parent != null && comp.compare(newKey, this.parent.key) < 0) {
-        FibNode<V, P> curr = this, par = this.parent;
-        do {
-          // delete node from parent
-          if(--par.degree == 0) {
-            par.firstChild = null;
-          } else {
-            if(par.firstChild == curr) {
-              par.firstChild = curr.right;
-            }
-            curr.right.left = curr.left;
-            curr.left.right = curr.right;
-          }
-
-          // insert into root list and unmark
-          curr.parent = null;
-          curr.lost = false;
-          this.heap.insertIntoRootList(curr);
-
-          if(!par.lost) {
-            par.lost = true;
-            break;
-          }
-
-          // cascade
-          curr = par;
-          par = curr.parent;
-        } while(par != null);
+    /**
+     * Increases this node's key in its heap by cutting it from its parent and moving its
+     * children to the root list. <em>O(log n)*</em>
+     * @param newKey new, greater key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is smaller that the old one
+     */
+    public void increaseKey(final P newKey) {
+      final FibHeap<V, P> hp = (FibHeap<V, P>) this.checkValid();
+      if(hp.comp.compare(newKey, this.key) < 0) {
+        throw new IllegalArgumentException("new key is smaller than old one");
       }
 
-      // update min pointer
-      if(comp.compare(newKey, this.heap.min.key) < 0) {
-        this.heap.min = this;
-      }
+      this.key = newKey;
+      hp.increased(this);
     }
 
     @Override
-    public String toString() {
-      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    void appendEntry(final StringBuilder sb) {
+      sb.append(this.key).append(", ").append(this.value);
     }
 
-    /**
-     * Recursive helper for {@link FibHeap#toString()}.
-     * @param sb string builder
-     * @param indent indentation level
-     */
-    private void toString(final StringBuilder sb, final int indent) {
-      for(int i = 0; i < indent; i++) {
-        sb.append("  ");
-      }
-      sb.append("Node").append(this.lost ? "'" : "").append('#').append(this.degree).append("[\n");
-      for(int i = 0; i <= indent; i++) {
-        sb.append("  ");
-      }
-      sb.append('(').append(this.key).append(", ").append(this.value).append(")");
-      if(this.firstChild == null) {
-        sb.append("\n");
-      } else {
-        sb.append(",\n");
-        FibNode<V, P> curr = this.firstChild;
-        do {
-          curr.toString(sb, indent + 1);
-          curr = curr.right;
-        } while(curr != this.firstChild);
-      }
-      for(int i = 0; i < indent; i++) {
-        sb.append("  ");
-      }
-      sb.append("]\n");
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
     }
   }
 }
@@ -0,0 +1,200 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+import de.woerteler.fibheap.FibHeap.FibNode;
+
+/**
+ * A {@link Queue} backed by a {@link FibHeap}, which can be used as a drop-in replacement for
+ * {@link PriorityQueue}. Elements are their own priorities, they are ordered by their natural
+ * ordering or by a {@link Comparator}. In addition to the {@link Queue} methods, elements can
+ * be inserted with {@link #offerNode(Object)}, whose result can be used to replace the element
+ * with a smaller one later.
+ * @author Leo Woerteler
+ *
+ * @param <E> element type
+ */
+public final class FibPriorityQueue<E> extends AbstractQueue<E> {
+  /** Backing heap, the elements are stored as keys. */
+  private final FibHeap<E, E> heap;
+  /** Comparator, {@code null} for the natural ordering. */
+  private final Comparator<? super E> comp;
+
+  /**
+   * Creates a queue that orders its elements according to their natural ordering.
+   */
+  public FibPriorityQueue() {
+    this.heap = FibHeap.newNaturalHeap();
+    this.comp = null;
+  }
+
+  /**
+   * Creates a queue that orders its elements according to the given comparator.
+   * @param comp the comparator, {@code null} for the natural ordering
+   */
+  public FibPriorityQueue(final Comparator<? super E> comp) {
+    if(comp == null) {
+      this.heap = FibHeap.newNaturalHeap();
+    } else {
+      @SuppressWarnings("unchecked")
+      final Comparator<E> cmp = (Comparator<E>) comp;
+      this.heap = FibHeap.newHeap(cmp);
+    }
+    this.comp = comp;
+  }
+
+  /**
+   * Creates a queue containing all elements of the given collection. Like in
+   * {@link PriorityQueue#PriorityQueue(Collection)}, the elements are ordered by the comparator
+   * of the collection if it is a {@link SortedSet}, a {@link PriorityQueue} or a
+   * {@link FibPriorityQueue}, and by their natural ordering otherwise.
+   * @param c elements to insert
+   * @throws NullPointerException if any of the elements is {@code null}
+   */
+  public FibPriorityQueue(final Collection<? extends E> c) {
+    this(comparatorOf(c));
+    this.addAll(c);
+  }
+
+  /**
+   * Returns the comparator that orders the elements of the given collection.
+   * @param <E> element type
+   * @param c collection
+   * @return the comparator, {@code null} for the natural ordering or unordered collections
+   */
+  @SuppressWarnings("unchecked")
+  private static <E> Comparator<? super E> comparatorOf(final Collection<? extends E> c) {
+    if(c instanceof SortedSet) {
+      return ((SortedSet<E>) c).comparator();
+    }
+    if(c instanceof PriorityQueue) {
+      return ((PriorityQueue<E>) c).comparator();
+    }
+    if(c instanceof FibPriorityQueue) {
+      return ((FibPriorityQueue<E>) c).comparator();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the comparator used to order the elements.
+   * @return the comparator, {@code null} for the natural ordering
+   */
+  public Comparator<? super E> comparator() {
+    return this.comp;
+  }
+
+  @Override
+  public boolean offer(final E e) {
+    this.offerNode(e);
+    return true;
+  }
+
+  /**
+   * Inserts the given element into this queue and returns its node in the backing heap. The
+   * node's key is the element, {@link FibNode#decreaseKey(Object)} replaces it with a smaller
+   * element and {@link FibNode#delete()} removes it from this queue. <em>O(1)</em>
+   * @param e element to insert
+   * @return the element's node
+   * @throws NullPointerException if the element is {@code null}
+   */
+  public FibNode<E, E> offerNode(final E e) {
+    return this.heap.insert(e, Objects.requireNonNull(e));
+  }
+
+  @Override
+  public boolean addAll(final Collection<? extends E> c) {
+    if(c == this) {
+      throw new IllegalArgumentException("cannot add a queue to itself");
+    }
+    @SuppressWarnings("unchecked")
+    final E[] elems = (E[]) c.toArray();
+    for(final E e : elems) {
+      Objects.requireNonNull(e);
+    }
+    this.heap.insertAll(elems, elems, null);
+    return elems.length != 0;
+  }
+
+  @Override
+  public E poll() {
+    final FibNode<E, E> min = this.heap.getMin();
+    if(min == null) {
+      return null;
+    }
+    this.heap.extractMin();
+    return min.key;
+  }
+
+  @Override
+  public E peek() {
+    final FibNode<E, E> min = this.heap.getMin();
+    return min == null ? null : min.key;
+  }
+
+  @Override
+  public int size() {
+    return this.heap.size();
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    if(o != null) {
+      for(final FibNode<E, E> node : this.heap.nodes()) {
+        if(o.equals(node.key)) {
+          node.delete();
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns an iterator over the elements of this queue in no particular order. The iterator
+   * works on a snapshot of the queue's entries, it supports {@link Iterator#remove()} and
+   * skips elements that were removed from the queue since its creation.
+   * @return the iterator
+   */
+  @Override
+  public Iterator<E> iterator() {
+    final Iterator<FibNode<E, E>> nodes = this.heap.nodes().iterator();
+    return new Iterator<E>() {
+      /** Next valid node, {@code null} if not computed yet. */
+      private FibNode<E, E> next;
+      /** Node that was returned last. */
+      private FibNode<E, E> last;
+
+      @Override
+      public boolean hasNext() {
+        while(this.next == null && nodes.hasNext()) {
+          final FibNode<E, E> node = nodes.next();
+          if(node.isValid()) {
+            this.next = node;
+          }
+        }
+        return this.next != null;
+      }
+
+      @Override
+      public E next() {
+        if(!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        this.last = this.next;
+        this.next = null;
+        return this.last.key;
+      }
+
+      @Override
+      public void remove() {
+        if(this.last == null) {
+          throw new IllegalStateException();
+        }
+        if(this.last.isValid()) {
+          this.last.delete();
+        }
+        this.last = null;
+      }
+    };
+  }
+}
@@ -0,0 +1,415 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * A priority queue implemented as a two-parent hollow heap, following <em>Hansen, Kaplan,
+ * Tarjan and Zwick: Hollow Heaps (ACM Trans. Algorithms 2017)</em>. The heap is a single
+ * heap-ordered DAG. Decreasing a key moves the entry into a new node and leaves a <em>hollow</em>
+ * node behind, which becomes a child of the new node, so that no subtree has to be cut.
+ * Deleting an entry that is not the minimum only makes its node hollow, hollow nodes are
+ * destroyed lazily once they become roots.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class HollowHeap<V, P> implements AddressableHeap<V, P> {
+  /** Initial size of the rank table. */
+  private static final int INITIAL_RANKS = 16;
+
+  /** Key comparator. */
+  private final Comparator<P> comp;
+  /** Owner of all entries in this heap. */
+  private Owner<HollowHeap<V, P>> owner = new Owner<>(this);
+  /** Root of the DAG, always full, {@code null} if the heap is empty. */
+  private HollowNode<V, P> root;
+  /** Rank table used for deletions, all entries are {@code null} in between. */
+  private HollowNode<?, ?>[] ranks = new HollowNode<?, ?>[INITIAL_RANKS];
+  /** Number of entries in this heap. */
+  private int size;
+
+  /**
+   * Constructor.
+   * @param comp comparator for the keys
+   */
+  private HollowHeap(final Comparator<P> comp) {
+    this.comp = comp;
+  }
+
+  /**
+   * Creates a new hollow heap where the priorities are ordered according to the given
+   * {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @return a new hollow heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   */
+  public static <V, P> HollowHeap<V, P> newHeap(final Comparator<P> comp) {
+    return new HollowHeap<>(Objects.requireNonNull(comp));
+  }
+
+  /**
+   * Creates a new hollow heap for priorities that are {@link Comparable}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @return a new hollow heap
+   */
+  public static <V, P extends Comparable<P>> HollowHeap<V, P> newComparableHeap() {
+    return new HollowHeap<>(FibHeap.<P>naturalOrder());
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   */
+  @Override
+  public HollowItem<V, P> insert(final V v, final P k) {
+    final HollowItem<V, P> item = new HollowItem<>(this.owner, k, v);
+    final HollowNode<V, P> node = new HollowNode<>(item);
+    this.root = this.root == null ? node : this.link(this.root, node);
+    this.size++;
+    return item;
+  }
+
+  /**
+   * Gets the entry currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal entry if the heap is non-empty, {@code null} otherwise
+   */
+  @Override
+  public HollowItem<V, P> getMin() {
+    return this.root == null ? null : this.root.item;
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap. <em>O(log n)*</em>
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  @Override
+  public V extractMin() {
+    if(this.root == null) {
+      throw new IllegalStateException("empty heap");
+    }
+    final HollowItem<V, P> item = this.root.item;
+    this.remove(item);
+    return item.value;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its entries belong to this heap. <em>O(1)</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same or their keys are ordered
+   *   by different comparators
+   */
+  public void meld(final HollowHeap<V, P> other) {
+    if(other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+    if(!this.comp.equals(other.comp)) {
+      throw new IllegalArgumentException("heaps use different comparators");
+    }
+    if(other.root == null) {
+      return;
+    }
+
+    this.root = this.root == null ? other.root : this.link(this.root, other.root);
+    this.size += other.size;
+
+    // hand over the other heap's entries and reset it
+    other.owner.forwardTo(this.owner);
+    other.owner = new Owner<>(other);
+    other.root = null;
+    other.size = 0;
+  }
+
+  @Override
+  public void meld(final AddressableHeap<V, P> other) {
+    if(!(other instanceof HollowHeap)) {
+      throw new IllegalArgumentException("cannot meld heaps of different types");
+    }
+    this.meld((HollowHeap<V, P>) other);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.root == null;
+  }
+
+  /**
+   * Links two full roots, the one with the larger key becomes the first child of the other one.
+   * <em>O(1)</em>
+   * @param a first root
+   * @param b second root
+   * @return the new root
+   */
+  private HollowNode<V, P> link(final HollowNode<V, P> a, final HollowNode<V, P> b) {
+    if(this.comp.compare(b.key, a.key) < 0) {
+      a.next = b.child;
+      b.child = a;
+      return b;
+    }
+    b.next = a.child;
+    a.child = b;
+    return a;
+  }
+
+  /**
+   * Moves the given entry into a new node with a smaller key, leaving its old node hollow.
+   * <em>O(1)</em>
+   * @param item entry whose key is decreased
+   * @param newKey new key
+   */
+  private void decreased(final HollowItem<V, P> item, final P newKey) {
+    final HollowNode<V, P> old = item.node;
+    if(old == this.root) {
+      old.key = newKey;
+      return;
+    }
+
+    final HollowNode<V, P> node = new HollowNode<>(item);
+    old.item = null;
+    node.rank = Math.max(old.rank - 2, 0);
+    // the hollow node is the last child of its second parent
+    node.child = old;
+    old.ep = node;
+    this.root = this.link(node, this.root);
+  }
+
+  /**
+   * Removes the given entry from this heap. Unless it is the minimum, its node is only
+   * made hollow. Otherwise all hollow roots are destroyed and the remaining full roots are linked
+   * by rank and then into a single root. <em>O(log n)*</em>
+   * @param item entry to remove
+   */
+  private void remove(final HollowItem<V, P> item) {
+    item.node.item = null;
+    item.node = null;
+    this.size--;
+    HollowNode<V, P> h = this.root;
+    if(h.item != null) {
+      return;
+    }
+
+    int maxRank = -1;
+    h.next = null;
+    // `h` is the list of hollow roots that still have to be destroyed
+    while(h != null) {
+      final HollowNode<V, P> v = h;
+      HollowNode<V, P> w = h.child;
+      h = h.next;
+      v.child = v.next = null;
+      while(w != null) {
+        HollowNode<V, P> u = w;
+        w = w.next;
+        if(u.item == null) {
+          if(u.ep == null) {
+            // hollow node that lost its only parent
+            u.next = h;
+            h = u;
+          } else {
+            // hollow node with two parents, it stays a child of the other one
+            if(u.ep == v) {
+              w = null;
+            } else {
+              u.next = null;
+            }
+            u.ep = null;
+          }
+        } else {
+          // full node, link it with others of the same rank
+          u.next = null;
+          int r = u.rank;
+          for(;;) {
+            if(r >= this.ranks.length) {
+              this.ranks = Arrays.copyOf(this.ranks, 2 * r);
+            }
+            @SuppressWarnings("unchecked")
+            final HollowNode<V, P> other = (HollowNode<V, P>) this.ranks[r];
+            if(other == null) {
+              break;
+            }
+            this.ranks[r] = null;
+            u = this.link(u, other);
+            u.rank = ++r;
+          }
+          this.ranks[r] = u;
+          maxRank = Math.max(maxRank, r);
+        }
+      }
+    }
+
+    // link the remaining roots without ranks
+    HollowNode<V, P> rt = null;
+    for(int r = 0; r <= maxRank; r++) {
+      @SuppressWarnings("unchecked")
+      final HollowNode<V, P> u = (HollowNode<V, P>) this.ranks[r];
+      if(u != null) {
+        this.ranks[r] = null;
+        rt = rt == null ? u : this.link(rt, u);
+      }
+    }
+    this.root = rt;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("HollowHeap[");
+    if(this.root != null) {
+      sb.append('\n');
+      this.root.toString(sb, 1);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * An entry in a {@link HollowHeap}, it stays the same when its key is decreased.
+   * @author Leo Woerteler
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  public static final class HollowItem<V, P> implements AddressableHeap.Handle<V, P> {
+    /** Owner of this entry's heap. */
+    private Owner<HollowHeap<V, P>> owner;
+    /** Node currently holding this entry, {@code null} if the entry was removed. */
+    HollowNode<V, P> node;
+    /** Current key. */
+    P key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param owner owner of the heap
+     * @param key priority
+     * @param value value
+     */
+    HollowItem(final Owner<HollowHeap<V, P>> owner, final P key, final V value) {
+      this.owner = owner;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public P getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean isValid() {
+      return this.node != null;
+    }
+
+    /**
+     * Decreases this entry's key in its heap. <em>O(1)</em>
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the entry is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    @Override
+    public void decreaseKey(final P newKey) {
+      final HollowHeap<V, P> hp = this.checkValid();
+      if(hp.comp.compare(newKey, this.key) > 0) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+      this.key = newKey;
+      hp.decreased(this, newKey);
+    }
+
+    /**
+     * Removes this entry from its heap. <em>O(1)</em> unless it is the minimum,
+     * <em>O(log n)*</em> otherwise
+     * @throws IllegalStateException if the entry is no longer contained in its heap
+     */
+    @Override
+    public void delete() {
+      this.checkValid().remove(this);
+    }
+
+    /**
+     * Checks that this entry is still contained in its heap and returns that heap.
+     * @return the heap
+     * @throws IllegalStateException if the entry is no longer contained in its heap
+     */
+    private HollowHeap<V, P> checkValid() {
+      if(this.node == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      final Owner<HollowHeap<V, P>> current = this.owner.find();
+      this.owner = current;
+      return current.heap();
+    }
+
+    @Override
+    public String toString() {
+      return "Item[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+
+  /**
+   * A full or hollow node in a {@link HollowHeap}.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  static final class HollowNode<V, P> {
+    /** Entry of this node, {@code null} if the node is hollow. */
+    HollowItem<V, P> item;
+    /** Key of the entry when it was moved into this node. */
+    P key;
+    /** First child. */
+    HollowNode<V, P> child;
+    /** Next sibling in the first parent's child list. */
+    HollowNode<V, P> next;
+    /** Second parent, only set for hollow nodes whose entry's key was decreased. */
+    HollowNode<V, P> ep;
+    /** Rank of this node. */
+    int rank;
+
+    /**
+     * Constructor, moves the given entry into this node.
+     * @param item entry
+     */
+    HollowNode(final HollowItem<V, P> item) {
+      this.item = item;
+      this.key = item.key;
+      item.node = this;
+    }
+
+    /**
+     * Recursive helper for {@link HollowHeap#toString()}. Hollow nodes with two parents are
+     * printed below both of them.
+     * @param sb string builder
+     * @param indent indentation level
+     */
+    void toString(final StringBuilder sb, final int indent) {
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("Node#").append(this.rank).append('[');
+      if(this.item != null) {
+        sb.append('(').append(this.key).append(", ").append(this.item.value).append(')');
+      }
+      sb.append('\n');
+      for(HollowNode<V, P> c = this.child; c != null; c = c.ep == this ? null : c.next) {
+        c.toString(sb, indent + 1);
+      }
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("]\n");
+    }
+  }
+}
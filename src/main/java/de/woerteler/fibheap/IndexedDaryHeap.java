@@ -0,0 +1,359 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * A priority queue implemented as an implicit d-ary heap in an array, with a position index in
+ * every node so that keys can be decreased and entries deleted through their handles. The arity
+ * is a power of two, e.g. 2, 4 or 8, higher arities make the heap shallower at the cost of more
+ * comparisons per level. For small and medium sizes its locality usually makes it faster than
+ * the pointer-based heaps.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class IndexedDaryHeap<V, P> implements AddressableHeap<V, P> {
+  /** Default arity. */
+  public static final int DEFAULT_ARITY = 4;
+  /** Initial capacity of the array. */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** Key comparator. */
+  private final Comparator<P> comp;
+  /** Binary logarithm of the arity. */
+  private final int shift;
+  /** The heap-ordered nodes, the first {@link #size} entries are used. */
+  private DaryNode<V, P>[] nodes;
+  /** Number of nodes in this heap. */
+  private int size;
+
+  /**
+   * Constructor.
+   * @param comp comparator for the keys
+   * @param arity number of children per node
+   */
+  private IndexedDaryHeap(final Comparator<P> comp, final int arity) {
+    if(arity < 2 || Integer.bitCount(arity) != 1) {
+      throw new IllegalArgumentException("arity must be a power of two: " + arity);
+    }
+    this.comp = comp;
+    this.shift = Integer.numberOfTrailingZeros(arity);
+    @SuppressWarnings("unchecked")
+    final DaryNode<V, P>[] nds = (DaryNode<V, P>[]) new DaryNode<?, ?>[INITIAL_CAPACITY];
+    this.nodes = nds;
+  }
+
+  /**
+   * Creates a new d-ary heap where the priorities are ordered according to
+   * the given {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @param arity number of children per node, a power of two
+   * @return a new d-ary heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   * @throws IllegalArgumentException if the arity is not a power of two greater than one
+   */
+  public static <V, P> IndexedDaryHeap<V, P> newHeap(final Comparator<P> comp, final int arity) {
+    return new IndexedDaryHeap<>(Objects.requireNonNull(comp), arity);
+  }
+
+  /**
+   * Creates a new d-ary heap with the {@link #DEFAULT_ARITY default arity} where the priorities
+   * are ordered according to the given {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @return a new d-ary heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   */
+  public static <V, P> IndexedDaryHeap<V, P> newHeap(final Comparator<P> comp) {
+    return newHeap(comp, DEFAULT_ARITY);
+  }
+
+  /**
+   * Creates a new d-ary heap for priorities that are {@link Comparable}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param arity number of children per node, a power of two
+   * @return a new d-ary heap
+   * @throws IllegalArgumentException if the arity is not a power of two greater than one
+   */
+  public static <V, P extends Comparable<P>> IndexedDaryHeap<V, P> newComparableHeap(
+      final int arity) {
+    return new IndexedDaryHeap<>(FibHeap.<P>naturalOrder(), arity);
+  }
+
+  /**
+   * Returns the number of children per node.
+   * @return the arity
+   */
+  public int arity() {
+    return 1 << this.shift;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(log n / log d)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   */
+  @Override
+  public DaryNode<V, P> insert(final V v, final P k) {
+    final DaryNode<V, P> node = new DaryNode<>(this, k, v);
+    this.append(node);
+    return node;
+  }
+
+  /**
+   * Gets the entry currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal entry if the heap is non-empty, {@code null} otherwise
+   */
+  @Override
+  public DaryNode<V, P> getMin() {
+    return this.size == 0 ? null : this.nodes[0];
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap.
+   * <em>O(d log n / log d)</em>
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  @Override
+  public V extractMin() {
+    if(this.size == 0) {
+      throw new IllegalStateException("empty heap");
+    }
+    final DaryNode<V, P> mn = this.nodes[0];
+    this.removeAt(0);
+    return mn.value;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its nodes belong to this heap. <em>O(m log (n + m) / log d)</em> where <em>m</em> is the
+   * size of the other heap
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same or their keys are ordered
+   *   by different comparators
+   */
+  public void meld(final IndexedDaryHeap<V, P> other) {
+    if(other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+    if(!this.comp.equals(other.comp)) {
+      throw new IllegalArgumentException("heaps use different comparators");
+    }
+    final DaryNode<V, P>[] nds = other.nodes;
+    for(int i = 0; i < other.size; i++) {
+      final DaryNode<V, P> node = nds[i];
+      nds[i] = null;
+      node.heap = this;
+      this.append(node);
+    }
+    other.size = 0;
+  }
+
+  @Override
+  public void meld(final AddressableHeap<V, P> other) {
+    if(!(other instanceof IndexedDaryHeap)) {
+      throw new IllegalArgumentException("cannot meld heaps of different types");
+    }
+    this.meld((IndexedDaryHeap<V, P>) other);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Appends the given node to the array and restores the heap order.
+   * @param node node to insert
+   */
+  private void append(final DaryNode<V, P> node) {
+    if(this.size == this.nodes.length) {
+      this.nodes = Arrays.copyOf(this.nodes, this.size + (this.size >> 1) + 1);
+    }
+    this.siftUp(node, this.size++);
+  }
+
+  /**
+   * Removes the node at the given position and fills the gap with the last node.
+   * @param pos position of the node to remove
+   */
+  private void removeAt(final int pos) {
+    final DaryNode<V, P>[] nds = this.nodes;
+    final DaryNode<V, P> node = nds[pos];
+    final int last = --this.size;
+    final DaryNode<V, P> moved = nds[last];
+    nds[last] = null;
+    if(pos != last) {
+      if(pos > 0 && this.comp.compare(moved.key, nds[(pos - 1) >>> this.shift].key) < 0) {
+        this.siftUp(moved, pos);
+      } else {
+        this.siftDown(moved, pos);
+      }
+    }
+    node.heap = null;
+    node.index = -1;
+  }
+
+  /**
+   * Moves the given node up from the given position until its parent is not greater.
+   * @param node node to place
+   * @param start position to start at, its current entry is overwritten
+   */
+  private void siftUp(final DaryNode<V, P> node, final int start) {
+    final DaryNode<V, P>[] nds = this.nodes;
+    int pos = start;
+    while(pos > 0) {
+      final int par = (pos - 1) >>> this.shift;
+      final DaryNode<V, P> parent = nds[par];
+      if(this.comp.compare(node.key, parent.key) >= 0) {
+        break;
+      }
+      nds[pos] = parent;
+      parent.index = pos;
+      pos = par;
+    }
+    nds[pos] = node;
+    node.index = pos;
+  }
+
+  /**
+   * Moves the given node down from the given position until none of its children is smaller.
+   * @param node node to place
+   * @param start position to start at, its current entry is overwritten
+   */
+  private void siftDown(final DaryNode<V, P> node, final int start) {
+    final DaryNode<V, P>[] nds = this.nodes;
+    final int n = this.size;
+    int pos = start;
+    for(;;) {
+      final int fst = (pos << this.shift) + 1;
+      if(fst >= n) {
+        break;
+      }
+      // find the smallest child
+      final int end = Math.min(fst + (1 << this.shift), n);
+      int mn = fst;
+      for(int c = fst + 1; c < end; c++) {
+        if(this.comp.compare(nds[c].key, nds[mn].key) < 0) {
+          mn = c;
+        }
+      }
+      final DaryNode<V, P> child = nds[mn];
+      if(this.comp.compare(child.key, node.key) >= 0) {
+        break;
+      }
+      nds[pos] = child;
+      child.index = pos;
+      pos = mn;
+    }
+    nds[pos] = node;
+    node.index = pos;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("IndexedDaryHeap[");
+    for(int i = 0; i < this.size; i++) {
+      sb.append(i == 0 ? "" : ", ").append('(').append(this.nodes[i].key).append(", ");
+      sb.append(this.nodes[i].value).append(')');
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * A node in an {@link IndexedDaryHeap}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  public static final class DaryNode<V, P> implements AddressableHeap.Handle<V, P> {
+    /** Heap of this node, {@code null} if the node was removed. */
+    IndexedDaryHeap<V, P> heap;
+    /** Position in the heap's array. */
+    int index;
+    /** Current key. */
+    P key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     * @param key priority
+     * @param value value
+     */
+    DaryNode(final IndexedDaryHeap<V, P> heap, final P key, final V value) {
+      this.heap = heap;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public P getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean isValid() {
+      return this.heap != null;
+    }
+
+    /**
+     * Decreases this node's key in its heap. <em>O(log n / log d)</em>
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    @Override
+    public void decreaseKey(final P newKey) {
+      final IndexedDaryHeap<V, P> hp = this.checkValid();
+      if(hp.comp.compare(newKey, this.key) > 0) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+      this.key = newKey;
+      hp.siftUp(this, this.index);
+    }
+
+    /**
+     * Removes this node from its heap. <em>O(d log n / log d)</em>
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    @Override
+    public void delete() {
+      this.checkValid().removeAt(this.index);
+    }
+
+    /**
+     * Checks that this node is still contained in its heap and returns that heap.
+     * @return the heap
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    private IndexedDaryHeap<V, P> checkValid() {
+      if(this.heap == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      return this.heap;
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
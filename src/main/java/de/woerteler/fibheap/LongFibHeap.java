@@ -0,0 +1,144 @@
+package de.woerteler.fibheap;
+
+/**
+ * A priority queue implemented as a fibonacci heap with primitive {@code long} keys.
+ * Keys are compared with {@code <}, so neither boxing nor a {@link java.util.Comparator} is
+ * involved in any operation.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ */
+public final class LongFibHeap<V> extends AbstractFibHeap<LongFibHeap.LongFibNode<V>> {
+  /** Private constructor, use {@link #newHeap()} instead. */
+  private LongFibHeap() {
+  }
+
+  /**
+   * Creates a new fibonacci heap with {@code long} keys.
+   * @param <V> value type
+   * @return a new fibonacci heap
+   */
+  public static <V> LongFibHeap<V> newHeap() {
+    return new LongFibHeap<>();
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   */
+  public LongFibNode<V> insert(final V v, final long k) {
+    final LongFibNode<V> node = new LongFibNode<>(this, k, v);
+    this.insertNode(node);
+    return node;
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap.
+   * <em>O(log n)*</em>
+   * @return the value if the heap was not empty, {@code null} otherwise
+   * @throws IllegalStateException if the heap is empty
+   */
+  public V extractMin() {
+    return this.removeMin().value;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its nodes belong to this heap. <em>O(1)</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same
+   */
+  public void meld(final LongFibHeap<V> other) {
+    this.absorb(other);
+  }
+
+  @Override
+  boolean less(final LongFibNode<V> a, final LongFibNode<V> b) {
+    return a.key < b.key;
+  }
+
+  /**
+   * A node in a {@link LongFibHeap}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   */
+  public static final class LongFibNode<V> extends AbstractFibHeap.Node<LongFibNode<V>> {
+    /** Current key. */
+    long key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     * @param key priority
+     * @param value value
+     */
+    LongFibNode(final LongFibHeap<V> heap, final long key, final V value) {
+      super(heap);
+      this.key = key;
+      this.value = value;
+    }
+
+    /**
+     * Getter for this node's current key.
+     * @return the key currently associated with this node
+     */
+    public long getKeyAsLong() {
+      return this.key;
+    }
+
+    /**
+     * Getter for this node's value.
+     * @return the value associated with this node
+     */
+    public V getValue() {
+      return this.value;
+    }
+
+    /**
+     * Decreases this node's key in its heap. <em>O(1)*</em>
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    public void decreaseKey(final long newKey) {
+      final AbstractFibHeap<LongFibNode<V>> hp = this.checkValid();
+      if(newKey > this.key) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+
+      this.key = newKey;
+      hp.decreased(this);
+    }
+
+    /**
+     * Increases this node's key in its heap by cutting it from its parent and moving its
+     * children to the root list. <em>O(log n)*</em>
+     * @param newKey new, greater key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is smaller that the old one
+     */
+    public void increaseKey(final long newKey) {
+      final AbstractFibHeap<LongFibNode<V>> hp = this.checkValid();
+      if(newKey < this.key) {
+        throw new IllegalArgumentException("new key is smaller than old one");
+      }
+
+      this.key = newKey;
+      hp.increased(this);
+    }
+
+    @Override
+    void appendEntry(final StringBuilder sb) {
+      sb.append(this.key).append(", ").append(this.value);
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
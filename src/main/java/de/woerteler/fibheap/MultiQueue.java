@@ -0,0 +1,300 @@
+package de.woerteler.fibheap;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+import de.woerteler.fibheap.FibHeap.FibNode;
+
+/**
+ * A relaxed, thread-safe priority queue that distributes its entries over several independent
+ * {@link FibHeap fibonacci heaps}, each guarded by its own lock. Insertions go to a random
+ * shard whose lock is free, {@link #extractMin()} samples two random shards and removes the
+ * minimum of the one with the smaller top key. The extracted entry is therefore not
+ * necessarily the global minimum, but close to it with high probability, while threads
+ * rarely contend for the same lock. Using about twice as many shards as threads works well.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class MultiQueue<V, P> {
+  /** Shards of this queue. */
+  private final Shard<V, P>[] shards;
+  /** Key comparator. */
+  private final Comparator<P> comp;
+
+  /**
+   * Constructor.
+   * @param comp comparator for priorities
+   * @param n number of shards
+   */
+  private MultiQueue(final Comparator<P> comp, final int n) {
+    @SuppressWarnings("unchecked")
+    final Shard<V, P>[] shrds = (Shard<V, P>[]) new Shard<?, ?>[n];
+    for(int i = 0; i < n; i++) {
+      shrds[i] = new Shard<>(FibHeap.<V, P>newHeap(comp));
+    }
+    this.shards = shrds;
+    this.comp = comp;
+  }
+
+  /**
+   * Creates a new multi-queue with the given number of shards.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @param shards number of shards
+   * @return the new queue
+   * @throws NullPointerException if {@code comp} is {@code null}
+   * @throws IllegalArgumentException if {@code shards} is not positive
+   */
+  public static <V, P> MultiQueue<V, P> newQueue(final Comparator<P> comp, final int shards) {
+    if(shards <= 0) {
+      throw new IllegalArgumentException("number of shards must be positive: " + shards);
+    }
+    return new MultiQueue<>(Objects.requireNonNull(comp), shards);
+  }
+
+  /**
+   * Creates a new multi-queue with two shards per available processor.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @return the new queue
+   * @throws NullPointerException if {@code comp} is {@code null}
+   */
+  public static <V, P> MultiQueue<V, P> newQueue(final Comparator<P> comp) {
+    return newQueue(comp, 2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Returns the number of shards of this queue.
+   * @return number of shards
+   */
+  public int shards() {
+    return this.shards.length;
+  }
+
+  /**
+   * Inserts a new entry into a random shard of this queue. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return handle of the new entry
+   */
+  public Handle<V, P> insert(final V v, final P k) {
+    final ThreadLocalRandom rng = ThreadLocalRandom.current();
+    for(;;) {
+      final Shard<V, P> shard = this.shards[rng.nextInt(this.shards.length)];
+      if(shard.lock.tryLock()) {
+        try {
+          final FibNode<V, P> node = shard.heap.insert(v, k);
+          shard.update();
+          return new Handle<>(shard, node);
+        } finally {
+          shard.lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Extracts the value with the smallest key from the better of two random shards.
+   * If both are empty, all shards are scanned for an entry. <em>O(log n)*</em>
+   * @return the value, or {@code null} if all shards were found empty
+   */
+  public V extractMin() {
+    final Shard<V, P>[] shrds = this.shards;
+    final int n = shrds.length;
+    final ThreadLocalRandom rng = ThreadLocalRandom.current();
+    for(;;) {
+      Shard<V, P> shard = shrds[rng.nextInt(n)];
+      if(n > 1) {
+        final Shard<V, P> other = shrds[rng.nextInt(n)];
+        final P a = shard.top, b = other.top;
+        if(a == null || b != null && this.comp.compare(b, a) < 0) {
+          shard = other;
+        }
+      }
+      if(shard.top == null && (shard = this.nonEmpty(rng.nextInt(n))) == null) {
+        return null;
+      }
+
+      if(shard.lock.tryLock()) {
+        try {
+          // the cached top key may be outdated
+          if(!shard.heap.isEmpty()) {
+            final V v = shard.heap.extractMin();
+            shard.update();
+            return v;
+          }
+        } finally {
+          shard.lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if all shards are empty. The result is only a snapshot if other threads concurrently
+   * modify the queue.
+   * @return result of check
+   */
+  public boolean isEmpty() {
+    return this.nonEmpty(0) == null;
+  }
+
+  /**
+   * Returns the number of entries in this queue. The result is only an estimate if other threads
+   * concurrently modify the queue. <em>O(s)</em> where <em>s</em> is the number of shards
+   * @return number of entries
+   */
+  public int size() {
+    int size = 0;
+    for(final Shard<V, P> shard : this.shards) {
+      size += shard.size;
+    }
+    return size;
+  }
+
+  /**
+   * Searches for a shard whose cached top key is present.
+   * @param start index of the first shard to look at
+   * @return a non-empty shard, or {@code null} if none was found
+   */
+  private Shard<V, P> nonEmpty(final int start) {
+    final Shard<V, P>[] shrds = this.shards;
+    for(int i = 0; i < shrds.length; i++) {
+      final Shard<V, P> shard = shrds[(start + i) % shrds.length];
+      if(shard.top != null) {
+        return shard;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A shard of a {@link MultiQueue}.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  private static final class Shard<V, P> {
+    /** Lock guarding the heap. */
+    final ReentrantLock lock = new ReentrantLock();
+    /** The heap, only accessed while holding the lock. */
+    final FibHeap<V, P> heap;
+    /** Key of the heap's minimum, {@code null} if the heap is empty. */
+    volatile P top;
+    /** Size of the heap. */
+    volatile int size;
+
+    /**
+     * Constructor.
+     * @param heap the heap
+     */
+    Shard(final FibHeap<V, P> heap) {
+      this.heap = heap;
+    }
+
+    /**
+     * Updates the cached top key and size after the heap was modified, the lock must be held.
+     */
+    void update() {
+      final FibNode<V, P> min = this.heap.getMin();
+      this.top = min == null ? null : min.key;
+      this.size = this.heap.size();
+    }
+  }
+
+  /**
+   * Handle for an entry of a {@link MultiQueue}, all operations are routed to the entry's shard
+   * and take its lock.
+   * @author Leo Woerteler
+   *
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  public static final class Handle<V, P> {
+    /** Shard of this entry. */
+    private final Shard<V, P> shard;
+    /** Node in the shard's heap. */
+    private final FibNode<V, P> node;
+
+    /**
+     * Constructor.
+     * @param shard shard of the entry
+     * @param node node in the shard's heap
+     */
+    Handle(final Shard<V, P> shard, final FibNode<V, P> node) {
+      this.shard = shard;
+      this.node = node;
+    }
+
+    /**
+     * Getter for this entry's current key.
+     * @return the key
+     */
+    public P getKey() {
+      final ReentrantLock lk = this.shard.lock;
+      lk.lock();
+      try {
+        return this.node.key;
+      } finally {
+        lk.unlock();
+      }
+    }
+
+    /**
+     * Getter for this entry's value.
+     * @return the value
+     */
+    public V getValue() {
+      return this.node.value;
+    }
+
+    /**
+     * Checks if this entry is still contained in the queue.
+     * @return result of check
+     */
+    public boolean isValid() {
+      final ReentrantLock lk = this.shard.lock;
+      lk.lock();
+      try {
+        return this.node.isValid();
+      } finally {
+        lk.unlock();
+      }
+    }
+
+    /**
+     * Decreases this entry's key in its shard. <em>O(1)*</em>
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the entry is no longer contained in the queue
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    public void decreaseKey(final P newKey) {
+      final ReentrantLock lk = this.shard.lock;
+      lk.lock();
+      try {
+        this.node.decreaseKey(newKey);
+        this.shard.update();
+      } finally {
+        lk.unlock();
+      }
+    }
+
+    /**
+     * Removes this entry from the queue. <em>O(log n)*</em>
+     * @throws IllegalStateException if the entry is no longer contained in the queue
+     */
+    public void delete() {
+      final ReentrantLock lk = this.shard.lock;
+      lk.lock();
+      try {
+        this.node.delete();
+        this.shard.update();
+      } finally {
+        lk.unlock();
+      }
+    }
+  }
+}
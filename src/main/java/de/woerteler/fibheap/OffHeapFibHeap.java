@@ -0,0 +1,552 @@
+package de.woerteler.fibheap;
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.*;
+import java.util.*;
+
+/**
+ * A fibonacci heap with primitive {@code double} keys whose nodes are stored outside of the
+ * Java heap. Entries are addressed by caller-chosen {@code long} handles, all links and keys
+ * live in direct {@link ByteBuffer} chunks that are allocated as needed, so the garbage collector
+ * never has to trace the heap's structure and its size is not limited by the Java heap. Only the
+ * chunks of handles that are actually used are allocated, so handles may be sparse.
+ * The memory is released by {@link #close()}, after which the heap cannot be used any more.
+ * @author Leo Woerteler
+ */
+public final class OffHeapFibHeap implements Closeable {
+  /** Handle returned by {@link #getMin()} if the heap is empty. */
+  public static final long NONE = -1;
+  /** Exclusive upper bound for handles. */
+  public static final long MAX_HANDLE = 1L << 47;
+
+  /** Number of nodes per chunk (logarithmic). */
+  private static final int CHUNK_BITS = 16;
+  /** Bit mask for the position of a node inside of its chunk. */
+  private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+  /** Number of chunks per directory page (logarithmic). */
+  private static final int PAGE_BITS = 12;
+  /** Bit mask for the position of a chunk inside of its directory page. */
+  private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+  /** Shift from a handle to the index of its directory page. */
+  private static final int PAGE_SHIFT = CHUNK_BITS + PAGE_BITS;
+  /** Maximum degree of a node, the degree is logarithmic in the number of handles. */
+  private static final int MAX_DEGREE = 128;
+
+  /** Offset of the key inside of a node. */
+  private static final int KEY = 0;
+  /** Offset of the parent handle inside of a node. */
+  private static final int PARENT = 8;
+  /** Offset of the child handle inside of a node. */
+  private static final int CHILD = 16;
+  /** Offset of the left sibling's handle inside of a node. */
+  private static final int LEFT = 24;
+  /** Offset of the right sibling's handle inside of a node. */
+  private static final int RIGHT = 32;
+  /** Offset of the degree inside of a node. */
+  private static final int DEGREE = 40;
+  /** Offset of the flags inside of a node. */
+  private static final int FLAGS = 44;
+  /** Size of a node in bytes. */
+  private static final int NODE_SIZE = 48;
+
+  /** Flag for nodes that are contained in the heap, direct buffers are initially zeroed. */
+  private static final int PRESENT = 1;
+  /** Flag for nodes that already lost a child. */
+  private static final int LOST = 2;
+
+  /** Instance of {@code sun.misc.Unsafe}, {@code null} if not accessible. */
+  private static final Object UNSAFE;
+  /** Method {@code Unsafe.invokeCleaner(ByteBuffer)} (Java 9+), {@code null} if not accessible. */
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invoke = null;
+    try {
+      final Class<?> cls = Class.forName("sun.misc.Unsafe");
+      final Field field = cls.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      invoke = cls.getMethod("invokeCleaner", ByteBuffer.class);
+      unsafe = field.get(null);
+    } catch(final Exception | LinkageError e) {
+      // Java 8 or earlier, or a restricted runtime
+      invoke = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invoke;
+  }
+
+  /** Directory pages of memory chunks, {@code null} if the heap was closed. */
+  private ByteBuffer[][] chunks = new ByteBuffer[0][];
+  /** Degree table used in {@link #consolidate()}, all entries are {@link #NONE} in between. */
+  private final long[] degrees = new long[MAX_DEGREE];
+  /** Handle of the minimum, {@link #NONE} if the heap is empty. */
+  private long min = NONE;
+
+  /** Constructor. */
+  public OffHeapFibHeap() {
+    Arrays.fill(this.degrees, NONE);
+  }
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   * @throws IllegalStateException if the heap was closed
+   */
+  public boolean isEmpty() {
+    this.chunks();
+    return this.min == NONE;
+  }
+
+  /**
+   * Checks if the given handle is currently contained in this heap.
+   * @param h handle
+   * @return result of check
+   * @throws IllegalStateException if the heap was closed
+   */
+  public boolean contains(final long h) {
+    final ByteBuffer[][] dir = this.chunks();
+    if(h < 0 || h >= MAX_HANDLE || (h >>> PAGE_SHIFT) >= dir.length) {
+      return false;
+    }
+    final ByteBuffer[] page = dir[(int) (h >>> PAGE_SHIFT)];
+    return page != null && page[(int) (h >>> CHUNK_BITS) & PAGE_MASK] != null
+        && (this.getInt(h, FLAGS) & PRESENT) != 0;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param h handle of the new entry, must be in {@code [0, MAX_HANDLE)}
+   * @param k key to insert
+   * @throws IllegalArgumentException if the handle is out of range or already contained in the
+   *   heap, or if the key is {@code NaN}
+   * @throws IllegalStateException if the heap was closed
+   */
+  public void insert(final long h, final double k) {
+    if(h < 0 || h >= MAX_HANDLE || this.contains(h)) {
+      throw new IllegalArgumentException("invalid handle: " + h);
+    }
+    DoubleFibHeap.checkKey(k);
+    this.allocate(h);
+
+    this.setKey(h, k);
+    this.setLong(h, PARENT, NONE);
+    this.setLong(h, CHILD, NONE);
+    this.setInt(h, DEGREE, 0);
+    this.setInt(h, FLAGS, PRESENT);
+    this.insertIntoRootList(h);
+    if(k < this.key(this.min)) {
+      this.min = h;
+    }
+  }
+
+  /**
+   * Gets the handle currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal handle if the queue is non-empty, {@link #NONE} otherwise
+   * @throws IllegalStateException if the heap was closed
+   */
+  public long getMin() {
+    this.chunks();
+    return this.min;
+  }
+
+  /**
+   * Getter for the current key of the given handle.
+   * @param h handle
+   * @return the key currently associated with the handle
+   * @throws IllegalStateException if the handle is not contained in the heap or the heap
+   *   was closed
+   */
+  public double getKey(final long h) {
+    this.checkValid(h);
+    return this.key(h);
+  }
+
+  /**
+   * Extracts and returns the handle with the smallest key from this heap.
+   * <em>O(log n)*</em>
+   * @return the handle
+   * @throws IllegalStateException if the heap is empty or was closed
+   */
+  public long extractMin() {
+    this.chunks();
+    final long mn = this.min;
+    if(mn == NONE) {
+      throw new IllegalStateException("empty heap");
+    }
+
+    // remove node from root list
+    final long lft = this.getLong(mn, LEFT), rgt = this.getLong(mn, RIGHT);
+    if(rgt == mn) {
+      this.min = NONE;
+    } else {
+      this.setLong(rgt, LEFT, lft);
+      this.setLong(lft, RIGHT, rgt);
+      this.min = rgt;
+    }
+
+    // add children to root list
+    final long fst = this.getLong(mn, CHILD);
+    if(fst != NONE) {
+      long curr = fst;
+      do {
+        final long next = this.getLong(curr, RIGHT);
+        this.setLong(curr, PARENT, NONE);
+        this.insertIntoRootList(curr);
+        curr = next;
+      } while(curr != fst);
+    }
+
+    // consolidate the root list
+    if(this.min != NONE) {
+      this.consolidate();
+    }
+
+    // invalidate and return the root entry
+    this.setInt(mn, FLAGS, 0);
+    return mn;
+  }
+
+  /**
+   * Decreases the key of the given handle. <em>O(1)*</em>
+   * @param h handle
+   * @param newKey new, smaller key
+   * @throws IllegalStateException if the handle is not contained in the heap or the heap
+   *   was closed
+   * @throws IllegalArgumentException if the new key is greater that the old one or {@code NaN}
+   */
+  public void decreaseKey(final long h, final double newKey) {
+    this.checkValid(h);
+    DoubleFibHeap.checkKey(newKey);
+    if(newKey > this.key(h)) {
+      throw new IllegalArgumentException("new key is greater than old one");
+    }
+
+    this.setKey(h, newKey);
+    final long hp = this.getLong(h, PARENT);
+    if(hp != NONE && newKey < this.key(hp)) {
+      long curr = h, par = hp;
+      do {
+        // delete node from parent
+        final int deg = this.getInt(par, DEGREE) - 1;
+        this.setInt(par, DEGREE, deg);
+        final long lft = this.getLong(curr, LEFT), rgt = this.getLong(curr, RIGHT);
+        if(deg == 0) {
+          this.setLong(par, CHILD, NONE);
+        } else {
+          if(this.getLong(par, CHILD) == curr) {
+            this.setLong(par, CHILD, rgt);
+          }
+          this.setLong(rgt, LEFT, lft);
+          this.setLong(lft, RIGHT, rgt);
+        }
+
+        // insert into root list and unmark
+        this.setLong(curr, PARENT, NONE);
+        this.setInt(curr, FLAGS, PRESENT);
+        this.insertIntoRootList(curr);
+
+        final int flags = this.getInt(par, FLAGS);
+        if((flags & LOST) == 0) {
+          this.setInt(par, FLAGS, flags | LOST);
+          break;
+        }
+
+        // cascade
+        curr = par;
+        par = this.getLong(curr, PARENT);
+      } while(par != NONE);
+    }
+
+    // update min pointer
+    if(newKey < this.key(this.min)) {
+      this.min = h;
+    }
+  }
+
+  /**
+   * Releases the memory held by this heap, the heap cannot be used afterwards. The direct
+   * buffers are freed immediately if the runtime gives access to their cleaner, otherwise they
+   * are reclaimed once they are garbage-collected. Closing a heap that is already closed has
+   * no effect.
+   */
+  @Override
+  public void close() {
+    final ByteBuffer[][] dir = this.chunks;
+    this.chunks = null;
+    this.min = NONE;
+    if(dir != null) {
+      for(final ByteBuffer[] page : dir) {
+        if(page != null) {
+          for(final ByteBuffer chunk : page) {
+            if(chunk != null) {
+              free(chunk);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("OffHeapFibHeap[");
+    if(this.chunks == null) {
+      sb.append("closed");
+    } else if(this.min != NONE) {
+      sb.append('\n');
+      long curr = this.min;
+      do {
+        this.toString(sb, curr, 1);
+        curr = this.getLong(curr, RIGHT);
+      } while(curr != this.min);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Returns the memory chunks of this heap.
+   * @return the chunks
+   * @throws IllegalStateException if the heap was closed
+   */
+  private ByteBuffer[][] chunks() {
+    if(this.chunks == null) {
+      throw new IllegalStateException("heap is closed");
+    }
+    return this.chunks;
+  }
+
+  /**
+   * Checks that the given handle is contained in this heap.
+   * @param h handle
+   * @throws IllegalStateException if the handle is not contained in the heap
+   */
+  private void checkValid(final long h) {
+    if(!this.contains(h)) {
+      throw new IllegalStateException("handle is not valid: " + h);
+    }
+  }
+
+  /**
+   * Allocates the chunk containing the given handle if it does not exist yet.
+   * @param h handle in {@code [0, MAX_HANDLE)}
+   */
+  private void allocate(final long h) {
+    final int p = (int) (h >>> PAGE_SHIFT), c = (int) (h >>> CHUNK_BITS) & PAGE_MASK;
+    if(p >= this.chunks.length) {
+      this.chunks = Arrays.copyOf(this.chunks, Math.max(p + 1, 2 * this.chunks.length));
+    }
+    if(this.chunks[p] == null) {
+      this.chunks[p] = new ByteBuffer[1 << PAGE_BITS];
+    }
+    if(this.chunks[p][c] == null) {
+      this.chunks[p][c] = ByteBuffer.allocateDirect(NODE_SIZE << CHUNK_BITS).order(
+          ByteOrder.nativeOrder());
+    }
+  }
+
+  /**
+   * Frees the native memory of the given direct buffer if the runtime allows it, the buffer
+   * must not be accessed afterwards.
+   * @param buffer direct buffer
+   */
+  private static void free(final ByteBuffer buffer) {
+    try {
+      if(INVOKE_CLEANER != null) {
+        INVOKE_CLEANER.invoke(UNSAFE, buffer);
+      } else {
+        // Java 8 and earlier: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+        final Method getCleaner = buffer.getClass().getMethod("cleaner");
+        getCleaner.setAccessible(true);
+        final Object cleaner = getCleaner.invoke(buffer);
+        if(cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+    } catch(final Exception e) {
+      // not accessible, the memory is reclaimed by the garbage collector
+    }
+  }
+
+  /**
+   * Returns the chunk containing the given node.
+   * @param h handle of the node
+   * @return the chunk
+   */
+  private ByteBuffer chunk(final long h) {
+    return this.chunks[(int) (h >>> PAGE_SHIFT)][(int) (h >>> CHUNK_BITS) & PAGE_MASK];
+  }
+
+  /**
+   * Reads a {@code long} field of a node.
+   * @param h handle of the node
+   * @param off offset of the field
+   * @return value of the field
+   */
+  private long getLong(final long h, final int off) {
+    return this.chunk(h).getLong((int) (h & CHUNK_MASK) * NODE_SIZE + off);
+  }
+
+  /**
+   * Writes a {@code long} field of a node.
+   * @param h handle of the node
+   * @param off offset of the field
+   * @param v value to write
+   */
+  private void setLong(final long h, final int off, final long v) {
+    this.chunk(h).putLong((int) (h & CHUNK_MASK) * NODE_SIZE + off, v);
+  }
+
+  /**
+   * Reads an {@code int} field of a node.
+   * @param h handle of the node
+   * @param off offset of the field
+   * @return value of the field
+   */
+  private int getInt(final long h, final int off) {
+    return this.chunk(h).getInt((int) (h & CHUNK_MASK) * NODE_SIZE + off);
+  }
+
+  /**
+   * Writes an {@code int} field of a node.
+   * @param h handle of the node
+   * @param off offset of the field
+   * @param v value to write
+   */
+  private void setInt(final long h, final int off, final int v) {
+    this.chunk(h).putInt((int) (h & CHUNK_MASK) * NODE_SIZE + off, v);
+  }
+
+  /**
+   * Reads the key of a node.
+   * @param h handle of the node
+   * @return the key
+   */
+  private double key(final long h) {
+    return this.chunk(h).getDouble((int) (h & CHUNK_MASK) * NODE_SIZE + KEY);
+  }
+
+  /**
+   * Writes the key of a node.
+   * @param h handle of the node
+   * @param k the key
+   */
+  private void setKey(final long h, final double k) {
+    this.chunk(h).putDouble((int) (h & CHUNK_MASK) * NODE_SIZE + KEY, k);
+  }
+
+  /**
+   * Inserts the given handle into the root list. <em>O(1)</em>
+   * @param h handle to insert
+   */
+  private void insertIntoRootList(final long h) {
+    final long mn = this.min;
+    if(mn == NONE) {
+      this.setLong(h, LEFT, h);
+      this.setLong(h, RIGHT, h);
+      this.min = h;
+    } else {
+      final long rgt = this.getLong(mn, RIGHT);
+      this.setLong(h, LEFT, mn);
+      this.setLong(h, RIGHT, rgt);
+      this.setLong(rgt, LEFT, h);
+      this.setLong(mn, RIGHT, h);
+    }
+  }
+
+  /**
+   * Consolidates the root list after a call to {@link #extractMin()}.<br/>
+   * <em>O(r)</em> where <em>r</em> is the length of the root list
+   */
+  private void consolidate() {
+    final long[] table = this.degrees;
+    final long fst = this.min;
+    this.min = NONE;
+
+    // go through the root list and merge nodes with the same degree
+    int maxDeg = 0;
+    long curr = fst;
+    do {
+      final long next = this.getLong(curr, RIGHT);
+      int d = this.getInt(curr, DEGREE);
+      while(table[d] != NONE) {
+        long other = table[d];
+        table[d] = NONE;
+        // the smaller key goes on top
+        if(this.key(other) < this.key(curr)) {
+          final long temp = curr;
+          curr = other;
+          other = temp;
+        }
+
+        // add `other` as a child to `curr`
+        this.setLong(other, PARENT, curr);
+        final long fstChild = this.getLong(curr, CHILD);
+        if(fstChild == NONE) {
+          this.setLong(curr, CHILD, other);
+          this.setLong(other, LEFT, other);
+          this.setLong(other, RIGHT, other);
+        } else {
+          final long rgt = this.getLong(fstChild, RIGHT);
+          this.setLong(other, LEFT, fstChild);
+          this.setLong(other, RIGHT, rgt);
+          this.setLong(rgt, LEFT, other);
+          this.setLong(fstChild, RIGHT, other);
+        }
+        this.setInt(curr, DEGREE, ++d);
+      }
+
+      // insert the new node
+      table[d] = curr;
+      maxDeg = Math.max(maxDeg, d);
+      curr = next;
+    } while(curr != fst);
+
+    // re-add all nodes to the root list, update the minimum and clear the table
+    long mn = NONE;
+    for(int d = 0; d <= maxDeg; d++) {
+      final long nd = table[d];
+      if(nd != NONE) {
+        table[d] = NONE;
+        this.insertIntoRootList(nd);
+        if(mn == NONE || this.key(nd) < this.key(mn)) {
+          mn = nd;
+        }
+      }
+    }
+    this.min = mn;
+  }
+
+  /**
+   * Recursive helper for {@link #toString()}.
+   * @param sb string builder
+   * @param h handle
+   * @param indent indentation level
+   */
+  private void toString(final StringBuilder sb, final long h, final int indent) {
+    for(int i = 0; i < indent; i++) {
+      sb.append("  ");
+    }
+    sb.append("Node").append((this.getInt(h, FLAGS) & LOST) != 0 ? "'" : "").append('#');
+    sb.append(this.getInt(h, DEGREE)).append("[\n");
+    for(int i = 0; i <= indent; i++) {
+      sb.append("  ");
+    }
+    sb.append('(').append(this.key(h)).append(", ").append(h).append(")");
+    final long fst = this.getLong(h, CHILD);
+    if(fst == NONE) {
+      sb.append("\n");
+    } else {
+      sb.append(",\n");
+      long curr = fst;
+      do {
+        this.toString(sb, curr, indent + 1);
+        curr = this.getLong(curr, RIGHT);
+      } while(curr != fst);
+    }
+    for(int i = 0; i < indent; i++) {
+      sb.append("  ");
+    }
+    sb.append("]\n");
+  }
+}
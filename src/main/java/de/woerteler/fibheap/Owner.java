@@ -0,0 +1,61 @@
+package de.woerteler.fibheap;
+
+/**
+ * Indirection between the entries of a heap and the heap itself. When two heaps are melded,
+ * the donor's owner is forwarded to the receiver's one instead of updating all entries.
+ * Chains of forwarded owners are shortened whenever they are followed.
+ * @author Leo Woerteler
+ *
+ * @param <H> heap type
+ */
+final class Owner<H> {
+  /** The owning heap, {@code null} if this owner was forwarded. */
+  private H heap;
+  /** Owner that this one was forwarded to, {@code null} if it is still current. */
+  private Owner<H> next;
+
+  /**
+   * Constructor.
+   * @param heap owning heap
+   */
+  Owner(final H heap) {
+    this.heap = heap;
+  }
+
+  /**
+   * Returns the current owner, which is either this one or the end of its forwarding chain.
+   * All owners on the chain are updated to point to the result directly.
+   * @return current owner
+   */
+  Owner<H> find() {
+    Owner<H> root = this;
+    while(root.next != null) {
+      root = root.next;
+    }
+    Owner<H> curr = this;
+    while(curr.next != null && curr.next != root) {
+      final Owner<H> nxt = curr.next;
+      curr.next = root;
+      curr = nxt;
+    }
+    return root;
+  }
+
+  /**
+   * Getter for the owning heap, only valid on an owner returned by {@link #find()}.
+   * @return the heap
+   */
+  H heap() {
+    return this.heap;
+  }
+
+  /**
+   * Forwards this owner to the given one, all entries owned by it are owned by the other
+   * owner's heap afterwards.
+   * @param other owner to forward to
+   */
+  void forwardTo(final Owner<H> other) {
+    this.heap = null;
+    this.next = other;
+  }
+}
@@ -0,0 +1,389 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * A priority queue implemented as a pairing heap with the standard two-pass linking of the
+ * children of an extracted root. Each node stores its leftmost child, its right sibling and a
+ * pointer to its left sibling or, for a leftmost child, to its parent.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class PairingHeap<V, P> implements AddressableHeap<V, P> {
+  /** Key comparator. */
+  private final Comparator<P> comp;
+  /** Owner of all nodes in this heap. */
+  private Owner<PairingHeap<V, P>> owner = new Owner<>(this);
+  /** Root node, {@code null} if the heap is empty. */
+  private PairNode<V, P> root;
+  /** Number of nodes in this heap. */
+  private int size;
+
+  /**
+   * Constructor taking a comparator for the keys.
+   * @param comp comparator
+   */
+  private PairingHeap(final Comparator<P> comp) {
+    this.comp = comp;
+  }
+
+  /**
+   * Creates a new pairing heap where the priorities are ordered according to
+   * the given {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @return a new pairing heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   */
+  public static <V, P> PairingHeap<V, P> newHeap(final Comparator<P> comp) {
+    return new PairingHeap<>(Objects.requireNonNull(comp));
+  }
+
+  /**
+   * Creates a new pairing heap for priorities that are {@link Comparable}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @return a new pairing heap
+   */
+  public static <V, P extends Comparable<P>> PairingHeap<V, P> newComparableHeap() {
+    return new PairingHeap<>(FibHeap.<P>naturalOrder());
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   */
+  @Override
+  public PairNode<V, P> insert(final V v, final P k) {
+    final PairNode<V, P> node = new PairNode<>(this, k, v);
+    this.root = this.root == null ? node : this.link(this.root, node);
+    this.size++;
+    return node;
+  }
+
+  /**
+   * Gets the entry currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal entry if the heap is non-empty, {@code null} otherwise
+   */
+  @Override
+  public PairNode<V, P> getMin() {
+    return this.root;
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap.
+   * <em>O(log n)*</em>
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  @Override
+  public V extractMin() {
+    final PairNode<V, P> mn = this.root;
+    if(mn == null) {
+      throw new IllegalStateException("empty heap");
+    }
+    this.root = this.combine(mn.child);
+    this.invalidate(mn);
+    return mn.value;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its nodes belong to this heap. <em>O(1)</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same or their keys are ordered
+   *   by different comparators
+   */
+  public void meld(final PairingHeap<V, P> other) {
+    if(other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+    if(!this.comp.equals(other.comp)) {
+      throw new IllegalArgumentException("heaps use different comparators");
+    }
+    if(other.root == null) {
+      return;
+    }
+
+    this.root = this.root == null ? other.root : this.link(this.root, other.root);
+    this.size += other.size;
+
+    // hand over the other heap's nodes and reset it
+    other.owner.forwardTo(this.owner);
+    other.owner = new Owner<>(other);
+    other.root = null;
+    other.size = 0;
+  }
+
+  @Override
+  public void meld(final AddressableHeap<V, P> other) {
+    if(!(other instanceof PairingHeap)) {
+      throw new IllegalArgumentException("cannot meld heaps of different types");
+    }
+    this.meld((PairingHeap<V, P>) other);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.root == null;
+  }
+
+  /**
+   * Links two detached trees, the one with the larger key becomes the leftmost child of the
+   * other one. <em>O(1)</em>
+   * @param a first tree
+   * @param b second tree
+   * @return the root of the resulting tree
+   */
+  private PairNode<V, P> link(final PairNode<V, P> a, final PairNode<V, P> b) {
+    final PairNode<V, P> top, sub;
+    if(this.comp.compare(b.key, a.key) < 0) {
+      top = b;
+      sub = a;
+    } else {
+      top = a;
+      sub = b;
+    }
+    sub.next = top.child;
+    if(top.child != null) {
+      top.child.prev = sub;
+    }
+    sub.prev = top;
+    top.child = sub;
+    return top;
+  }
+
+  /**
+   * Combines a list of siblings into a single tree using two-pass pairing: adjacent pairs are
+   * linked from left to right, the results are then linked from right to left.
+   * <em>O(k)</em> where <em>k</em> is the number of siblings
+   * @param first leftmost sibling, may be {@code null}
+   * @return root of the combined tree, {@code null} if the list was empty
+   */
+  private PairNode<V, P> combine(final PairNode<V, P> first) {
+    // first pass, the linked pairs are pushed onto a stack threaded through `next`
+    PairNode<V, P> stack = null, curr = first;
+    while(curr != null) {
+      final PairNode<V, P> a = curr, b = a.next;
+      PairNode<V, P> tree = a;
+      if(b == null) {
+        curr = null;
+      } else {
+        curr = b.next;
+        b.next = b.prev = null;
+        tree = this.link(a, b);
+      }
+      tree.prev = null;
+      tree.next = stack;
+      stack = tree;
+    }
+
+    // second pass, the stack's top is the rightmost tree
+    PairNode<V, P> res = stack;
+    if(res != null) {
+      stack = res.next;
+      res.next = null;
+      while(stack != null) {
+        final PairNode<V, P> tree = stack;
+        stack = tree.next;
+        tree.next = null;
+        res = this.link(res, tree);
+      }
+    }
+    return res;
+  }
+
+  /**
+   * Cuts the sub-tree rooted at the given non-root node from its parent. <em>O(1)</em>
+   * @param node node to cut
+   */
+  private void cut(final PairNode<V, P> node) {
+    if(node.prev.child == node) {
+      node.prev.child = node.next;
+    } else {
+      node.prev.next = node.next;
+    }
+    if(node.next != null) {
+      node.next.prev = node.prev;
+    }
+    node.next = node.prev = null;
+  }
+
+  /**
+   * Updates the heap after the key of the given node was decreased. <em>O(1)</em>
+   * @param node node whose key was decreased
+   */
+  private void decreased(final PairNode<V, P> node) {
+    if(node != this.root) {
+      this.cut(node);
+      this.root = this.link(this.root, node);
+    }
+  }
+
+  /**
+   * Removes the given node from this heap. <em>O(log n)*</em>
+   * @param node node to remove
+   */
+  private void remove(final PairNode<V, P> node) {
+    if(node == this.root) {
+      this.extractMin();
+      return;
+    }
+    this.cut(node);
+    final PairNode<V, P> sub = this.combine(node.child);
+    if(sub != null) {
+      this.root = this.link(this.root, sub);
+    }
+    this.invalidate(node);
+  }
+
+  /**
+   * Marks the given node, which was already removed from the tree, as invalid.
+   * @param node node to invalidate
+   */
+  private void invalidate(final PairNode<V, P> node) {
+    node.owner = null;
+    node.child = null;
+    this.size--;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("PairingHeap[");
+    if(this.root != null) {
+      sb.append('\n');
+      this.root.toString(sb, 1);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * A node in a {@link PairingHeap}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  public static final class PairNode<V, P> implements AddressableHeap.Handle<V, P> {
+    /** Owner of this node's heap, {@code null} if the node was removed. */
+    Owner<PairingHeap<V, P>> owner;
+    /** Leftmost child, {@code null} for leaves. */
+    PairNode<V, P> child;
+    /** Right sibling, {@code null} for the rightmost child and the root. */
+    PairNode<V, P> next;
+    /** Left sibling, or the parent for a leftmost child, {@code null} for the root. */
+    PairNode<V, P> prev;
+    /** Current key. */
+    P key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     * @param key priority
+     * @param value value
+     */
+    PairNode(final PairingHeap<V, P> heap, final P key, final V value) {
+      this.owner = heap.owner;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public P getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean isValid() {
+      return this.owner != null;
+    }
+
+    /**
+     * Decreases this node's key in its heap. <em>O(1)</em>, the amortized bound for pairing
+     * heaps is open, <em>O(log log n)</em> and <em>O(2^(2 sqrt(log log n)))</em> are known
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    @Override
+    public void decreaseKey(final P newKey) {
+      final PairingHeap<V, P> hp = this.checkValid();
+      if(hp.comp.compare(newKey, this.key) > 0) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+      this.key = newKey;
+      hp.decreased(this);
+    }
+
+    /**
+     * Removes this node from its heap. <em>O(log n)*</em>
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    @Override
+    public void delete() {
+      this.checkValid().remove(this);
+    }
+
+    /**
+     * Checks that this node is still contained in its heap and returns that heap.
+     * @return the heap
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    private PairingHeap<V, P> checkValid() {
+      if(this.owner == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      final Owner<PairingHeap<V, P>> current = this.owner.find();
+      this.owner = current;
+      return current.heap();
+    }
+
+    /**
+     * Recursive helper for {@link PairingHeap#toString()}.
+     * @param sb string builder
+     * @param indent indentation level
+     */
+    void toString(final StringBuilder sb, final int indent) {
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("Node[\n");
+      for(int i = 0; i <= indent; i++) {
+        sb.append("  ");
+      }
+      sb.append('(').append(this.key).append(", ").append(this.value).append(')');
+      if(this.child == null) {
+        sb.append("\n");
+      } else {
+        sb.append(",\n");
+        for(PairNode<V, P> c = this.child; c != null; c = c.next) {
+          c.toString(sb, indent + 1);
+        }
+      }
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("]\n");
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
@@ -0,0 +1,322 @@
+package de.woerteler.fibheap;
+
+/**
+ * A monotone priority queue implemented as a radix heap with primitive {@code long} keys, for
+ * workloads like Dijkstra's algorithm with integer weights where no key is ever smaller than the
+ * last extracted minimum. Entries are kept in 65 buckets, the bucket of a key is the position of
+ * the highest bit in which it differs from the last minimum. {@link #extractMin()} only
+ * redistributes the first non-empty bucket, so every entry moves at most 64 times, which makes
+ * all operations <em>O(1)</em> apart from an amortized <em>O(log C)</em> for extraction where
+ * <em>C</em> is the largest difference between keys. All {@code long} values, including
+ * negative ones and {@code int} keys, can be used as keys.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ */
+public final class RadixHeap<V> {
+  /** Number of buckets, bucket {@code 0} holds the keys equal to the last minimum. */
+  private static final int BUCKETS = Long.SIZE + 1;
+
+  /** First node in each bucket, the buckets are unsorted doubly-linked lists. */
+  private final RadixNode<?>[] buckets = new RadixNode<?>[BUCKETS];
+  /** Last extracted minimum, a lower bound for all keys in the heap. */
+  private long last = Long.MIN_VALUE;
+  /** Number of nodes in this heap. */
+  private int size;
+
+  /** Private constructor, use {@link #newHeap()} instead. */
+  private RadixHeap() {
+  }
+
+  /**
+   * Creates a new radix heap with {@code long} keys.
+   * @param <V> value type
+   * @return a new radix heap
+   */
+  public static <V> RadixHeap<V> newHeap() {
+    return new RadixHeap<>();
+  }
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the number of entries in this heap. <em>O(1)</em>
+   * @return number of entries
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the key of the last extracted minimum, which is the smallest key that can still be
+   * inserted. Before the first extraction it is {@link Long#MIN_VALUE}.
+   * @return lower bound for new keys
+   */
+  public long lastMin() {
+    return this.last;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   * @throws IllegalArgumentException if the key is smaller than the last extracted minimum
+   */
+  public RadixNode<V> insert(final V v, final long k) {
+    this.checkKey(k);
+    final RadixNode<V> node = new RadixNode<>(this, k, v);
+    this.push(node);
+    this.size++;
+    return node;
+  }
+
+  /**
+   * Gets the entry currently at the top of this heap. <em>O(b)</em> where <em>b</em> is the
+   * size of the first non-empty bucket
+   * @return a minimal entry if the heap is non-empty, {@code null} otherwise
+   */
+  public RadixNode<V> getMin() {
+    if(this.size == 0) {
+      return null;
+    }
+    int b = 0;
+    while(this.buckets[b] == null) {
+      b++;
+    }
+    final RadixNode<V> fst = this.bucket(b);
+    return b == 0 ? fst : min(fst);
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap.
+   * <em>O(log C)*</em>
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  public V extractMin() {
+    if(this.size == 0) {
+      throw new IllegalStateException("empty heap");
+    }
+    if(this.buckets[0] == null) {
+      int b = 1;
+      while(this.buckets[b] == null) {
+        b++;
+      }
+
+      // the smallest key in the bucket becomes the new reference point, all keys of the
+      // bucket share their bits above `b` with it, so they end up in lower buckets
+      RadixNode<V> node = this.bucket(b);
+      this.buckets[b] = null;
+      this.last = min(node).key;
+      while(node != null) {
+        final RadixNode<V> next = node.next;
+        this.push(node);
+        node = next;
+      }
+    }
+    final RadixNode<V> mn = this.bucket(0);
+    this.remove(mn);
+    return mn.value;
+  }
+
+  /**
+   * Finds the node with the smallest key in the given list. <em>O(b)</em>
+   * @param <V> value type
+   * @param first first node of the list
+   * @return the minimal node
+   */
+  private static <V> RadixNode<V> min(final RadixNode<V> first) {
+    RadixNode<V> mn = first;
+    for(RadixNode<V> n = first.next; n != null; n = n.next) {
+      if(n.key < mn.key) {
+        mn = n;
+      }
+    }
+    return mn;
+  }
+
+  /**
+   * Returns the first node of the given bucket.
+   * @param b bucket index
+   * @return first node, {@code null} if the bucket is empty
+   */
+  @SuppressWarnings("unchecked")
+  private RadixNode<V> bucket(final int b) {
+    return (RadixNode<V>) this.buckets[b];
+  }
+
+  /**
+   * Inserts the given unlinked node into the bucket for its key.
+   * @param node node to insert
+   */
+  private void push(final RadixNode<V> node) {
+    final long diff = node.key ^ this.last;
+    final int b = diff == 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(diff);
+    final RadixNode<V> fst = this.bucket(b);
+    node.bucket = b;
+    node.prev = null;
+    node.next = fst;
+    if(fst != null) {
+      fst.prev = node;
+    }
+    this.buckets[b] = node;
+  }
+
+  /**
+   * Unlinks the given node from its bucket.
+   * @param node node to unlink
+   */
+  private void unlink(final RadixNode<V> node) {
+    if(node.prev == null) {
+      this.buckets[node.bucket] = node.next;
+    } else {
+      node.prev.next = node.next;
+    }
+    if(node.next != null) {
+      node.next.prev = node.prev;
+    }
+    node.prev = node.next = null;
+  }
+
+  /**
+   * Removes the given node from this heap and invalidates it.
+   * @param node node to remove
+   */
+  private void remove(final RadixNode<V> node) {
+    this.unlink(node);
+    node.heap = null;
+    this.size--;
+  }
+
+  /**
+   * Checks that the given key can be inserted into this heap.
+   * @param k key
+   * @throws IllegalArgumentException if the key is smaller than the last extracted minimum
+   */
+  private void checkKey(final long k) {
+    if(k < this.last) {
+      throw new IllegalArgumentException("key is smaller than the last extracted minimum: " + k);
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("RadixHeap[last=").append(this.last);
+    for(int b = 0; b < BUCKETS; b++) {
+      if(this.buckets[b] != null) {
+        sb.append(", ").append(b).append(':');
+        for(RadixNode<V> n = this.bucket(b); n != null; n = n.next) {
+          sb.append(" (").append(n.key).append(", ").append(n.value).append(')');
+        }
+      }
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * A node in a {@link RadixHeap}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   */
+  public static final class RadixNode<V> {
+    /** Heap of this node, {@code null} if the node was removed. */
+    RadixHeap<V> heap;
+    /** Previous node in the bucket, {@code null} for the first one. */
+    RadixNode<V> prev;
+    /** Next node in the bucket, {@code null} for the last one. */
+    RadixNode<V> next;
+    /** Index of the bucket containing this node. */
+    int bucket;
+    /** Current key. */
+    long key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     * @param key priority
+     * @param value value
+     */
+    RadixNode(final RadixHeap<V> heap, final long key, final V value) {
+      this.heap = heap;
+      this.key = key;
+      this.value = value;
+    }
+
+    /**
+     * Getter for this node's current key.
+     * @return the key currently associated with this node
+     */
+    public long getKeyAsLong() {
+      return this.key;
+    }
+
+    /**
+     * Getter for this node's value.
+     * @return the value associated with this node
+     */
+    public V getValue() {
+      return this.value;
+    }
+
+    /**
+     * Checks if this entry is still contained in its heap.
+     * @return result of check
+     */
+    public boolean isValid() {
+      return this.heap != null;
+    }
+
+    /**
+     * Decreases this node's key in its heap by moving it to the bucket of the new key.
+     * <em>O(1)</em>
+     * @param newKey new, smaller key, not smaller than the last extracted minimum
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one or smaller
+     *   than the last extracted minimum
+     */
+    public void decreaseKey(final long newKey) {
+      final RadixHeap<V> hp = this.checkValid();
+      if(newKey > this.key) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+      hp.checkKey(newKey);
+      hp.unlink(this);
+      this.key = newKey;
+      hp.push(this);
+    }
+
+    /**
+     * Removes this node from its heap. <em>O(1)</em>
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    public void delete() {
+      this.checkValid().remove(this);
+    }
+
+    /**
+     * Checks that this node is still contained in its heap and returns that heap.
+     * @return the heap
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    private RadixHeap<V> checkValid() {
+      if(this.heap == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      return this.heap;
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
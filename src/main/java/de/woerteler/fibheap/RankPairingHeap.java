@@ -0,0 +1,501 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * A priority queue implemented as a one-pass rank-pairing heap, following <em>Haeupler, Sen
+ * and Tarjan: Rank-Pairing Heaps (SIAM J. Comput. 2011)</em>. The heap is a circular list of
+ * half-ordered binary trees whose roots only have a left child. Decreasing a key cuts the node
+ * together with its left subtree and then lowers the ranks on the path to the root, which
+ * replaces the cascading cuts of fibonacci heaps. How far ranks are lowered is determined by
+ * the {@link RankRule}.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class RankPairingHeap<V, P> implements AddressableHeap<V, P> {
+  /** Rank rules for the nodes' children, both give the same amortized bounds. */
+  public enum RankRule {
+    /** Every child is a 1,1-node or a 0,i-node. */
+    TYPE_1,
+    /** Children may also be 1,2-nodes, which lowers fewer ranks after a cut. */
+    TYPE_2
+  }
+
+  /** Initial size of the rank table. */
+  private static final int INITIAL_RANKS = 16;
+
+  /** Key comparator. */
+  private final Comparator<P> comp;
+  /** Rank rule. */
+  private final RankRule rule;
+  /** Owner of all nodes in this heap. */
+  private Owner<RankPairingHeap<V, P>> owner = new Owner<>(this);
+  /** Minimum root, {@code null} if the heap is empty. */
+  private RankNode<V, P> min;
+  /** Rank table used in {@link #extractMin()}, all entries are {@code null} in between. */
+  private RankNode<?, ?>[] ranks = new RankNode<?, ?>[INITIAL_RANKS];
+  /** Number of nodes in this heap. */
+  private int size;
+
+  /**
+   * Constructor.
+   * @param comp comparator for the keys
+   * @param rule rank rule
+   */
+  private RankPairingHeap(final Comparator<P> comp, final RankRule rule) {
+    this.comp = comp;
+    this.rule = Objects.requireNonNull(rule);
+  }
+
+  /**
+   * Creates a new rank-pairing heap where the priorities are ordered according to
+   * the given {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @param rule rank rule, must be non-{@code null}
+   * @return a new rank-pairing heap
+   * @throws NullPointerException if {@code comp} or {@code rule} is {@code null}
+   */
+  public static <V, P> RankPairingHeap<V, P> newHeap(final Comparator<P> comp,
+      final RankRule rule) {
+    return new RankPairingHeap<>(Objects.requireNonNull(comp), rule);
+  }
+
+  /**
+   * Creates a new rank-pairing heap with {@link RankRule#TYPE_1 type-1 ranks} where the
+   * priorities are ordered according to the given {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @return a new rank-pairing heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   */
+  public static <V, P> RankPairingHeap<V, P> newHeap(final Comparator<P> comp) {
+    return newHeap(comp, RankRule.TYPE_1);
+  }
+
+  /**
+   * Creates a new rank-pairing heap for priorities that are {@link Comparable}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param rule rank rule, must be non-{@code null}
+   * @return a new rank-pairing heap
+   * @throws NullPointerException if {@code rule} is {@code null}
+   */
+  public static <V, P extends Comparable<P>> RankPairingHeap<V, P> newComparableHeap(
+      final RankRule rule) {
+    return new RankPairingHeap<>(FibHeap.<P>naturalOrder(), rule);
+  }
+
+  /**
+   * Returns the rank rule of this heap.
+   * @return the rank rule
+   */
+  public RankRule rankRule() {
+    return this.rule;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)</em>
+   * @param v value to insert
+   * @param k key to insert
+   * @return the inserted entry
+   */
+  @Override
+  public RankNode<V, P> insert(final V v, final P k) {
+    final RankNode<V, P> node = new RankNode<>(this, k, v);
+    this.addRoot(node);
+    this.size++;
+    return node;
+  }
+
+  /**
+   * Gets the entry currently at the top of this heap. <em>O(1)</em>
+   * @return a minimal entry if the heap is non-empty, {@code null} otherwise
+   */
+  @Override
+  public RankNode<V, P> getMin() {
+    return this.min;
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this heap. The remaining roots
+   * and the half-trees on the minimum's left spine are linked in a single pass, each pair of
+   * half-trees with equal rank is linked once. <em>O(log n)*</em>
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  @Override
+  public V extractMin() {
+    final RankNode<V, P> mn = this.min;
+    if(mn == null) {
+      throw new IllegalStateException("empty heap");
+    }
+
+    this.min = null;
+    int maxRank = -1;
+    // the other roots
+    for(RankNode<V, P> r = mn.next; r != mn;) {
+      final RankNode<V, P> nxt = r.next;
+      maxRank = Math.max(maxRank, this.bucket(r));
+      r = nxt;
+    }
+    // the right spine of the minimum's left child
+    for(RankNode<V, P> r = mn.left; r != null;) {
+      final RankNode<V, P> nxt = r.next;
+      r.parent = null;
+      r.next = null;
+      r.rank = r.left == null ? 0 : r.left.rank + 1;
+      maxRank = Math.max(maxRank, this.bucket(r));
+      r = nxt;
+    }
+    // trees that were not linked
+    for(int i = 0; i <= maxRank; i++) {
+      @SuppressWarnings("unchecked")
+      final RankNode<V, P> r = (RankNode<V, P>) this.ranks[i];
+      if(r != null) {
+        this.ranks[i] = null;
+        this.addRoot(r);
+      }
+    }
+
+    mn.owner = null;
+    mn.left = mn.next = null;
+    this.size--;
+    return mn.value;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty and
+   * its nodes belong to this heap. <em>O(1)</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same or their keys are ordered
+   *   by different comparators
+   */
+  public void meld(final RankPairingHeap<V, P> other) {
+    if(other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+    if(!this.comp.equals(other.comp)) {
+      throw new IllegalArgumentException("heaps use different comparators");
+    }
+    final RankNode<V, P> om = other.min;
+    if(om == null) {
+      return;
+    }
+
+    if(this.min == null) {
+      this.min = om;
+    } else {
+      // splice the circular lists
+      final RankNode<V, P> nxt = this.min.next;
+      this.min.next = om.next;
+      om.next = nxt;
+      if(this.less(om, this.min)) {
+        this.min = om;
+      }
+    }
+    this.size += other.size;
+
+    // hand over the other heap's nodes and reset it
+    other.owner.forwardTo(this.owner);
+    other.owner = new Owner<>(other);
+    other.min = null;
+    other.size = 0;
+  }
+
+  @Override
+  public void meld(final AddressableHeap<V, P> other) {
+    if(!(other instanceof RankPairingHeap)) {
+      throw new IllegalArgumentException("cannot meld heaps of different types");
+    }
+    this.meld((RankPairingHeap<V, P>) other);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.min == null;
+  }
+
+  /**
+   * Checks if the key of the first node is strictly smaller than that of the second one.
+   * @param a first node
+   * @param b second node
+   * @return {@code true} if {@code a}'s key is smaller than {@code b}'s, {@code false} otherwise
+   */
+  private boolean less(final RankNode<V, P> a, final RankNode<V, P> b) {
+    return this.comp.compare(a.key, b.key) < 0;
+  }
+
+  /**
+   * Adds the given half-tree to the root list and updates the minimum. <em>O(1)</em>
+   * @param node root of the half-tree
+   */
+  private void addRoot(final RankNode<V, P> node) {
+    final RankNode<V, P> mn = this.min;
+    if(mn == null) {
+      node.next = node;
+      this.min = node;
+    } else {
+      node.next = mn.next;
+      mn.next = node;
+      if(this.less(node, mn)) {
+        this.min = node;
+      }
+    }
+  }
+
+  /**
+   * Puts the given half-tree into the rank table. If the slot is occupied, both half-trees are
+   * linked and the result is added to the root list.
+   * @param node root of the half-tree
+   * @return rank of the slot that was used
+   */
+  private int bucket(final RankNode<V, P> node) {
+    final int r = node.rank;
+    if(r >= this.ranks.length) {
+      this.ranks = Arrays.copyOf(this.ranks, 2 * r);
+    }
+    @SuppressWarnings("unchecked")
+    final RankNode<V, P> other = (RankNode<V, P>) this.ranks[r];
+    if(other == null) {
+      this.ranks[r] = node;
+    } else {
+      this.ranks[r] = null;
+      this.addRoot(this.link(node, other));
+    }
+    return r;
+  }
+
+  /**
+   * Links two half-trees of equal rank, the root with the larger key becomes the left child of
+   * the other one and takes over its left subtree as its right subtree. <em>O(1)</em>
+   * @param a first half-tree
+   * @param b second half-tree
+   * @return root of the resulting half-tree
+   */
+  private RankNode<V, P> link(final RankNode<V, P> a, final RankNode<V, P> b) {
+    final RankNode<V, P> top, sub;
+    if(this.less(b, a)) {
+      top = b;
+      sub = a;
+    } else {
+      top = a;
+      sub = b;
+    }
+    sub.next = top.left;
+    if(top.left != null) {
+      top.left.parent = sub;
+    }
+    sub.parent = top;
+    top.left = sub;
+    top.rank++;
+    return top;
+  }
+
+  /**
+   * Cuts the given non-root node with its left subtree from its tree, makes it a root and
+   * restores the rank rule on the path from its former parent to the root. <em>O(1)*</em>
+   * @param node node to cut
+   */
+  private void cut(final RankNode<V, P> node) {
+    final RankNode<V, P> par = node.parent;
+    // the right child takes the node's place
+    final RankNode<V, P> right = node.next;
+    if(par.left == node) {
+      par.left = right;
+    } else {
+      par.next = right;
+    }
+    if(right != null) {
+      right.parent = par;
+    }
+    node.parent = null;
+    node.rank = node.left == null ? 0 : node.left.rank + 1;
+    this.addRoot(node);
+
+    // lower the ranks on the path to the root
+    for(RankNode<V, P> u = par;;) {
+      final int k = u.left == null ? -1 : u.left.rank;
+      final int r;
+      if(u.parent == null) {
+        r = k + 1;
+      } else {
+        final int k2 = u.next == null ? -1 : u.next.rank;
+        final int mx = Math.max(k, k2), diff = Math.abs(k - k2);
+        r = (this.rule == RankRule.TYPE_1 ? diff == 0 : diff <= 1) ? mx + 1 : mx;
+      }
+      if(r >= u.rank) {
+        break;
+      }
+      u.rank = r;
+      if(u.parent == null) {
+        break;
+      }
+      u = u.parent;
+    }
+  }
+
+  /**
+   * Updates the heap after the key of the given node was decreased. <em>O(1)*</em>
+   * @param node node whose key was decreased
+   */
+  private void decreased(final RankNode<V, P> node) {
+    if(node.parent != null) {
+      this.cut(node);
+    } else if(this.less(node, this.min)) {
+      this.min = node;
+    }
+  }
+
+  /**
+   * Removes the given node from this heap by making it the minimum root. <em>O(log n)*</em>
+   * @param node node to remove
+   */
+  private void remove(final RankNode<V, P> node) {
+    if(node.parent != null) {
+      this.cut(node);
+    }
+    this.min = node;
+    this.extractMin();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("RankPairingHeap[");
+    if(this.min != null) {
+      sb.append('\n');
+      RankNode<V, P> r = this.min;
+      do {
+        r.toString(sb, 1, false);
+        r = r.next;
+      } while(r != this.min);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * A node in a {@link RankPairingHeap}.
+   * @author Leo Woerteler
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  public static final class RankNode<V, P> implements AddressableHeap.Handle<V, P> {
+    /** Owner of this node's heap, {@code null} if the node was removed. */
+    Owner<RankPairingHeap<V, P>> owner;
+    /** Parent in the binary tree, {@code null} for roots. */
+    RankNode<V, P> parent;
+    /** Left child. */
+    RankNode<V, P> left;
+    /** Right child, or the next root in the root list for roots. */
+    RankNode<V, P> next;
+    /** Rank of this node. */
+    int rank;
+    /** Current key. */
+    P key;
+    /** Value. */
+    final V value;
+
+    /**
+     * Constructor.
+     * @param heap heap of this node
+     * @param key priority
+     * @param value value
+     */
+    RankNode(final RankPairingHeap<V, P> heap, final P key, final V value) {
+      this.owner = heap.owner;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public P getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean isValid() {
+      return this.owner != null;
+    }
+
+    /**
+     * Decreases this node's key in its heap. <em>O(1)*</em>
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    @Override
+    public void decreaseKey(final P newKey) {
+      final RankPairingHeap<V, P> hp = this.checkValid();
+      if(hp.comp.compare(newKey, this.key) > 0) {
+        throw new IllegalArgumentException("new key is greater than old one");
+      }
+      this.key = newKey;
+      hp.decreased(this);
+    }
+
+    /**
+     * Removes this node from its heap. <em>O(log n)*</em>
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    @Override
+    public void delete() {
+      this.checkValid().remove(this);
+    }
+
+    /**
+     * Checks that this node is still contained in its heap and returns that heap.
+     * @return the heap
+     * @throws IllegalStateException if the node is no longer contained in its heap
+     */
+    private RankPairingHeap<V, P> checkValid() {
+      if(this.owner == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      final Owner<RankPairingHeap<V, P>> current = this.owner.find();
+      this.owner = current;
+      return current.heap();
+    }
+
+    /**
+     * Recursive helper for {@link RankPairingHeap#toString()}.
+     * @param sb string builder
+     * @param indent indentation level
+     * @param right flag for also printing the right subtree
+     */
+    void toString(final StringBuilder sb, final int indent, final boolean right) {
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("Node#").append(this.rank).append("[(").append(this.key).append(", ");
+      sb.append(this.value).append(")\n");
+      if(this.left != null) {
+        this.left.toString(sb, indent + 1, true);
+      }
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("]\n");
+      if(right && this.next != null) {
+        this.next.toString(sb, indent, true);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Node[key=" + this.key + ", value=" + this.value + "]";
+    }
+  }
+}
@@ -0,0 +1,396 @@
+package de.woerteler.fibheap;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A lock-free concurrent priority queue based on a skiplist, following <em>Lindén and
+ * Jonsson: A Skiplist-Based Concurrent Priority Queue with Minimal Memory Contention
+ * (OPODIS 2013)</em>.
+ * <p>
+ * {@link #extractMin()} claims the first unclaimed node of the lowest level by setting the mark
+ * bit of its predecessor's {@code next} pointer, so all claimed nodes form a prefix of the list.
+ * This prefix is only unlinked once it exceeds {@link #BOUND_OFFSET} nodes, by a single CAS on
+ * the head's pointer, which keeps contention on the head low.
+ * <p>
+ * Entries are addressed through {@link Handle handles} that point to the entry's current node.
+ * Removing an entry clears that pointer and decreasing its key replaces it with a new node,
+ * the old node stays in the list as a stale node until it is skipped at the front. The new node
+ * is fully linked before the pointer is swung to it, so the entry is always contained in a live
+ * node. A thread that claims such a linked, but not yet published node completes the
+ * replacement on behalf of the decreasing thread.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class SkipListQueue<V, P> {
+  /** Maximum height of a node. */
+  private static final int MAX_LEVEL = 32;
+  /** Minimum length of the prefix of claimed nodes before it is unlinked. */
+  private static final int BOUND_OFFSET = 32;
+
+  /** Head sentinel, its successors at all levels are {@code null} for an empty list. */
+  private final Node<V, P> head = new Node<>(null, null, MAX_LEVEL, null);
+  /** Key comparator. */
+  private final Comparator<P> comp;
+
+  /**
+   * Constructor taking a comparator for the keys.
+   * @param comp comparator
+   */
+  private SkipListQueue(final Comparator<P> comp) {
+    this.comp = comp;
+  }
+
+  /**
+   * Creates a new queue where the priorities are ordered according to the given
+   * {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @return the new queue
+   * @throws NullPointerException if {@code comp} is {@code null}
+   */
+  public static <V, P> SkipListQueue<V, P> newQueue(final Comparator<P> comp) {
+    return new SkipListQueue<>(Objects.requireNonNull(comp));
+  }
+
+  /**
+   * Inserts a new entry into this queue. <em>O(log n)</em> expected
+   * @param v value to insert
+   * @param k key to insert
+   * @return handle of the new entry
+   */
+  public Handle<V, P> insert(final V v, final P k) {
+    final Handle<V, P> handle = new Handle<>(this, v);
+    final Node<V, P> node = new Node<>(k, handle, randomLevel(), null);
+    handle.node.set(node);
+    this.insertNode(node);
+    return handle;
+  }
+
+  /**
+   * Extracts and returns the value with the smallest key from this queue.
+   * <em>O(log n)</em> expected
+   * @return the value, or {@code null} if the queue is empty
+   */
+  public V extractMin() {
+    final Node<V, P> hd = this.head;
+    final Node<V, P> obsolete = hd.next[0].getReference();
+    final boolean[] marked = new boolean[1];
+    Node<V, P> pred = hd;
+    int offset = 0;
+    for(;;) {
+      final Node<V, P> node = pred.next[0].get(marked);
+      if(node == null) {
+        if(offset >= BOUND_OFFSET) {
+          this.restructure(obsolete, pred);
+        }
+        return null;
+      }
+      if(!marked[0]) {
+        if(!pred.next[0].compareAndSet(node, node, false, true)) {
+          continue;
+        }
+        // the node is claimed, its entry is ours unless the node became stale
+        if(take(node)) {
+          if(offset >= BOUND_OFFSET) {
+            this.restructure(obsolete, node);
+          }
+          return node.handle.value;
+        }
+      }
+      pred = node;
+      offset++;
+    }
+  }
+
+  /**
+   * Tries to remove the entry of the given claimed node from the queue. If the node replaces
+   * the entry's current node but was not published yet, the replacement is completed first.
+   * @param node claimed node
+   * @return {@code true} if the entry was removed, {@code false} if the node is stale
+   */
+  private static <V, P> boolean take(final Node<V, P> node) {
+    for(;;) {
+      final Node<V, P> repl = node.replaces, curr = node.handle.node.get();
+      if(curr == node) {
+        if(node.handle.node.compareAndSet(node, null)) {
+          return true;
+        }
+      } else if(repl == null || curr != repl) {
+        return false;
+      } else {
+        node.handle.node.compareAndSet(repl, node);
+      }
+    }
+  }
+
+  /**
+   * Checks if this queue is empty. The result is only a snapshot if other threads concurrently
+   * modify the queue.
+   * @return result of check
+   */
+  public boolean isEmpty() {
+    return this.count(1) == 0;
+  }
+
+  /**
+   * Returns the number of entries in this queue. The result is only an estimate if other threads
+   * concurrently modify the queue. <em>O(n)</em>
+   * @return number of entries
+   */
+  public int size() {
+    return this.count(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Counts the live nodes in the lowest level of the list.
+   * @param max maximum number of nodes to count
+   * @return number of live nodes, at most {@code max}
+   */
+  private int count(final int max) {
+    int n = 0;
+    final boolean[] marked = new boolean[1];
+    Node<V, P> pred = this.head;
+    for(Node<V, P> node; n < max && (node = pred.next[0].get(marked)) != null; pred = node) {
+      if(!marked[0] && node.handle.node.get() == node) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Links the given unpublished node into the list, first at the lowest level and then in
+   * the index levels. <em>O(log n)</em> expected
+   * @param node node to insert
+   */
+  private void insertNode(final Node<V, P> node) {
+    @SuppressWarnings("unchecked")
+    final Node<V, P>[] preds = (Node<V, P>[]) new Node<?, ?>[MAX_LEVEL],
+        succs = (Node<V, P>[]) new Node<?, ?>[MAX_LEVEL];
+    do {
+      this.locate(node.key, preds, succs);
+      node.next[0].set(succs[0], false);
+    } while(!preds[0].next[0].compareAndSet(succs[0], node, false, false));
+
+    for(int i = 1; i < node.next.length; i++) {
+      for(;;) {
+        // no need to index nodes that are already part of the claimed prefix
+        if(node.next[0].isMarked() || node.isStale()) {
+          return;
+        }
+        node.next[i].set(succs[i], false);
+        if(preds[i].next[i].compareAndSet(succs[i], node, false, false)) {
+          break;
+        }
+        this.locate(node.key, preds, succs);
+      }
+    }
+  }
+
+  /**
+   * Finds the predecessors and successors of the given key in all levels. Claimed nodes are
+   * skipped, so a new node is always inserted behind the claimed prefix.
+   * @param k key
+   * @param preds array for the predecessors
+   * @param succs array for the successors
+   */
+  private void locate(final P k, final Node<V, P>[] preds, final Node<V, P>[] succs) {
+    final boolean[] marked = new boolean[1];
+    Node<V, P> pred = this.head;
+    for(int i = MAX_LEVEL - 1; i >= 0; i--) {
+      Node<V, P> succ = pred.next[i].get(marked);
+      while(succ != null && (i == 0 && marked[0] || succ.next[0].isMarked()
+          || this.comp.compare(succ.key, k) < 0)) {
+        pred = succ;
+        succ = pred.next[i].get(marked);
+      }
+      preds[i] = pred;
+      succs[i] = succ;
+    }
+  }
+
+  /**
+   * Unlinks the prefix of claimed nodes up to the given node from all levels.
+   * @param obsolete first node of the lowest level when the prefix was traversed
+   * @param last last claimed node, becomes the first node of the lowest level
+   */
+  private void restructure(final Node<V, P> obsolete, final Node<V, P> last) {
+    final Node<V, P> hd = this.head;
+    if(!hd.next[0].compareAndSet(obsolete, last, true, true)) {
+      return;
+    }
+    for(int i = MAX_LEVEL - 1; i > 0; i--) {
+      for(;;) {
+        final Node<V, P> first = hd.next[i].getReference();
+        if(first == null || !first.next[0].isMarked()) {
+          break;
+        }
+        hd.next[i].compareAndSet(first, first.next[i].getReference(), false, false);
+      }
+    }
+  }
+
+  /**
+   * Draws a random node height from a geometric distribution with {@code p = 1/2}.
+   * @return the height
+   */
+  private static int randomLevel() {
+    final int bits = ThreadLocalRandom.current().nextInt() | 1 << MAX_LEVEL - 1;
+    return Integer.numberOfTrailingZeros(bits) + 1;
+  }
+
+  /**
+   * A node of the skiplist, each {@code next} pointer's mark bit is set iff the successor in
+   * the lowest level is claimed.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  private static final class Node<V, P> {
+    /** Key, immutable. */
+    final P key;
+    /** Handle of the entry, the node is stale if the handle points to another node. */
+    final Handle<V, P> handle;
+    /** Successors in all levels of the node. */
+    final AtomicMarkableReference<Node<V, P>>[] next;
+    /** Node that this node replaces until it is published or became stale, else {@code null}. */
+    volatile Node<V, P> replaces;
+
+    /**
+     * Constructor.
+     * @param key key
+     * @param handle handle of the entry
+     * @param level height of the node
+     * @param replaces current node of the entry that this node replaces, may be {@code null}
+     */
+    Node(final P key, final Handle<V, P> handle, final int level, final Node<V, P> replaces) {
+      this.key = key;
+      this.handle = handle;
+      this.replaces = replaces;
+      @SuppressWarnings("unchecked")
+      final AtomicMarkableReference<Node<V, P>>[] nxt =
+          (AtomicMarkableReference<Node<V, P>>[]) new AtomicMarkableReference<?>[level];
+      for(int i = 0; i < level; i++) {
+        nxt[i] = new AtomicMarkableReference<>(null, false);
+      }
+      this.next = nxt;
+    }
+
+    /**
+     * Checks if this node neither holds its entry nor can be published anymore.
+     * @return result of check
+     */
+    boolean isStale() {
+      final Node<V, P> repl = this.replaces, curr = this.handle.node.get();
+      return curr != this && (repl == null || curr != repl);
+    }
+  }
+
+  /**
+   * Handle for an entry of a {@link SkipListQueue}. All operations are lock-free, they are
+   * linearized at the CAS on the pointer to the entry's current node.
+   * @author Leo Woerteler
+   *
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  public static final class Handle<V, P> {
+    /** Queue of this entry. */
+    private final SkipListQueue<V, P> queue;
+    /** Value. */
+    final V value;
+    /** Current node of this entry, {@code null} if the entry was removed. */
+    final AtomicReference<Node<V, P>> node = new AtomicReference<>();
+
+    /**
+     * Constructor.
+     * @param queue queue of the entry
+     * @param value value
+     */
+    Handle(final SkipListQueue<V, P> queue, final V value) {
+      this.queue = queue;
+      this.value = value;
+    }
+
+    /**
+     * Getter for this entry's current key.
+     * @return the key
+     * @throws IllegalStateException if the entry is no longer contained in the queue
+     */
+    public P getKey() {
+      return this.current().key;
+    }
+
+    /**
+     * Getter for this entry's value.
+     * @return the value
+     */
+    public V getValue() {
+      return this.value;
+    }
+
+    /**
+     * Checks if this entry is still contained in the queue.
+     * @return result of check
+     */
+    public boolean isValid() {
+      return this.node.get() != null;
+    }
+
+    /**
+     * Decreases this entry's key by replacing its node with a new one. The new node is linked
+     * into the list before it is published, if the entry is removed or its key is decreased
+     * further in the meantime, the operation takes effect right before that.
+     * <em>O(log n)</em> expected
+     * @param newKey new, smaller key
+     * @throws IllegalStateException if the entry is no longer contained in the queue
+     * @throws IllegalArgumentException if the new key is greater that the old one
+     */
+    public void decreaseKey(final P newKey) {
+      for(;;) {
+        final Node<V, P> curr = this.current();
+        if(this.queue.comp.compare(newKey, curr.key) > 0) {
+          throw new IllegalArgumentException("new key is greater than old one");
+        }
+        final Node<V, P> nd = new Node<>(newKey, this, randomLevel(), curr);
+        this.queue.insertNode(nd);
+        final boolean published = this.node.compareAndSet(curr, nd);
+        // either way the node can no longer be published by another thread
+        nd.replaces = null;
+        if(published) {
+          return;
+        }
+        final Node<V, P> now = this.node.get();
+        if(now == null || now == nd || this.queue.comp.compare(now.key, newKey) <= 0) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Removes this entry from the queue. Its node is unlinked lazily. <em>O(1)</em>
+     * @throws IllegalStateException if the entry is no longer contained in the queue
+     */
+    public void delete() {
+      while(!this.node.compareAndSet(this.current(), null)) {
+        // retry
+      }
+    }
+
+    /**
+     * Returns this entry's current node.
+     * @return the node
+     * @throws IllegalStateException if the entry is no longer contained in the queue
+     */
+    private Node<V, P> current() {
+      final Node<V, P> curr = this.node.get();
+      if(curr == null) {
+        throw new IllegalStateException("node is not valid");
+      }
+      return curr;
+    }
+  }
+}
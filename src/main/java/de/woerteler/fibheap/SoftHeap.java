@@ -0,0 +1,498 @@
+package de.woerteler.fibheap;
+import java.util.*;
+
+/**
+ * An approximate priority queue implemented as a soft heap, following <em>Kaplan and Zwick:
+ * A simpler implementation and analysis of Chazelle's soft heaps (SODA 2009)</em>. To make
+ * {@link #extractMin()} cheap, the heap may <em>corrupt</em> entries by raising their keys, but
+ * after <em>n</em> insertions it never contains more than <em>&epsilon;n</em> corrupted entries
+ * for the error rate <em>&epsilon;</em> given on construction. {@link #extractMin()} returns an
+ * entry whose possibly raised key is minimal, whether that entry was corrupted is reported by
+ * {@link #lastCorrupted()}. Insertion and melding take <em>O(1)</em> and extraction
+ * <em>O(log 1/&epsilon;)</em> amortized time, independent of the heap's size.
+ * @author Leo Woerteler
+ *
+ * @param <V> value type
+ * @param <P> priority type
+ */
+public final class SoftHeap<V, P> {
+  /** Key comparator. */
+  private final Comparator<P> comp;
+  /** Error rate. */
+  private final double epsilon;
+  /** Rank up to which nodes hold a single entry, so that they are never corrupted. */
+  private final int maxExact;
+  /** First tree in the root list, the trees are sorted by ascending rank. */
+  private Tree<V, P> first;
+  /** Rank of the last tree in the root list, {@code 0} if the heap is empty. */
+  private int rank;
+  /** Number of entries in this heap. */
+  private int size;
+  /** Original key of the last extracted entry. */
+  private P lastKey;
+  /** Flag for the last extracted entry being corrupted. */
+  private boolean lastCorrupted;
+
+  /**
+   * Constructor.
+   * @param comp comparator for the keys
+   * @param epsilon error rate
+   */
+  private SoftHeap(final Comparator<P> comp, final double epsilon) {
+    if(!(epsilon > 0 && epsilon <= 1)) {
+      throw new IllegalArgumentException("error rate must be in (0, 1]: " + epsilon);
+    }
+    this.comp = comp;
+    this.epsilon = epsilon;
+    int lg = 0;
+    while(lg < Long.SIZE - 2 && (1L << lg) * epsilon < 1) {
+      lg++;
+    }
+    this.maxExact = 2 + 2 * lg;
+  }
+
+  /**
+   * Creates a new soft heap where the priorities are ordered according to the given
+   * {@link Comparator}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param comp comparator for priorities, must be non-{@code null}
+   * @param epsilon error rate, the maximum fraction of corrupted entries
+   * @return a new soft heap
+   * @throws NullPointerException if {@code comp} is {@code null}
+   * @throws IllegalArgumentException if {@code epsilon} is not in {@code (0, 1]}
+   */
+  public static <V, P> SoftHeap<V, P> newHeap(final Comparator<P> comp, final double epsilon) {
+    return new SoftHeap<>(Objects.requireNonNull(comp), epsilon);
+  }
+
+  /**
+   * Creates a new soft heap for priorities that are {@link Comparable}.
+   * @param <V> value type
+   * @param <P> priority type
+   * @param epsilon error rate, the maximum fraction of corrupted entries
+   * @return a new soft heap
+   * @throws IllegalArgumentException if {@code epsilon} is not in {@code (0, 1]}
+   */
+  public static <V, P extends Comparable<P>> SoftHeap<V, P> newComparableHeap(
+      final double epsilon) {
+    return new SoftHeap<>(FibHeap.<P>naturalOrder(), epsilon);
+  }
+
+  /**
+   * Returns the error rate of this heap.
+   * @return the maximum fraction of corrupted entries
+   */
+  public double errorRate() {
+    return this.epsilon;
+  }
+
+  /**
+   * Tests if this heap is empty.
+   * @return {@code true} if the heap is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return this.first == null;
+  }
+
+  /**
+   * Returns the number of entries in this heap. <em>O(1)</em>
+   * @return number of entries
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Inserts a new entry into this heap. <em>O(1)*</em>
+   * @param v value to insert
+   * @param k key to insert
+   */
+  public void insert(final V v, final P k) {
+    this.meld(new Tree<>(new SoftNode<>(new Item<>(k, v))), 0);
+    this.size++;
+  }
+
+  /**
+   * Extracts and returns a value whose current key is minimal, the current key being larger
+   * than the original one if the entry is corrupted. <em>O(log 1/&epsilon;)*</em>
+   * @return the value
+   * @throws IllegalStateException if the heap is empty
+   */
+  public V extractMin() {
+    if(this.first == null) {
+      throw new IllegalStateException("empty heap");
+    }
+    final Tree<V, P> t = this.first.sufmin;
+    final SoftNode<V, P> x = t.root;
+    final Item<V, P> item = x.head;
+    x.head = item.next;
+    item.next = null;
+    x.num--;
+    this.size--;
+    this.lastKey = item.key;
+    this.lastCorrupted = this.comp.compare(item.key, x.ckey) < 0;
+
+    // refill the root once it has lost half of its entries
+    if(2 * x.num <= x.size) {
+      if(!x.isLeaf()) {
+        this.sift(x);
+        this.updateSuffixMin(t);
+      } else if(x.num == 0) {
+        final Tree<V, P> prev = t.prev, next = t.next;
+        if(prev == null) {
+          this.first = next;
+        } else {
+          prev.next = next;
+        }
+        if(next == null) {
+          this.rank = prev == null ? 0 : prev.root.rank;
+        } else {
+          next.prev = prev;
+        }
+        this.updateSuffixMin(prev);
+      }
+    }
+    return item.value;
+  }
+
+  /**
+   * Returns the original key of the last extracted entry.
+   * @return the key, {@code null} before the first extraction
+   */
+  public P lastKey() {
+    return this.lastKey;
+  }
+
+  /**
+   * Checks if the last extracted entry was corrupted, i.e. if it was extracted with a key that
+   * is larger than its original one. Entries whose keys are smaller than that key may still be
+   * contained in the heap.
+   * @return {@code true} if the last extracted entry was corrupted, {@code false} otherwise
+   */
+  public boolean lastCorrupted() {
+    return this.lastCorrupted;
+  }
+
+  /**
+   * Returns the values of all entries in this heap that are currently corrupted. <em>O(n)</em>
+   * @return list of values
+   */
+  public List<V> corrupted() {
+    final List<V> out = new ArrayList<>();
+    final ArrayDeque<SoftNode<V, P>> stack = new ArrayDeque<>();
+    for(Tree<V, P> t = this.first; t != null; t = t.next) {
+      stack.push(t.root);
+      while(!stack.isEmpty()) {
+        final SoftNode<V, P> nd = stack.pop();
+        for(Item<V, P> it = nd.head; it != null; it = it.next) {
+          if(this.comp.compare(it.key, nd.ckey) < 0) {
+            out.add(it.value);
+          }
+        }
+        if(nd.left != null) {
+          stack.push(nd.left);
+        }
+        if(nd.right != null) {
+          stack.push(nd.right);
+        }
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Moves all entries of the given heap into this one. Afterwards the other heap is empty.
+   * <em>O(1)*</em>
+   * @param other heap to meld into this one
+   * @throws IllegalArgumentException if both heaps are the same, their keys are ordered by
+   *   different comparators or they have different error rates
+   */
+  public void meld(final SoftHeap<V, P> other) {
+    if(other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+    if(!this.comp.equals(other.comp)) {
+      throw new IllegalArgumentException("heaps use different comparators");
+    }
+    if(this.epsilon != other.epsilon) {
+      throw new IllegalArgumentException("heaps use different error rates");
+    }
+    if(other.first == null) {
+      return;
+    }
+    this.meld(other.first, other.rank);
+    this.size += other.size;
+    other.first = null;
+    other.rank = other.size = 0;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("SoftHeap[");
+    if(this.first != null) {
+      sb.append('\n');
+      for(Tree<V, P> t = this.first; t != null; t = t.next) {
+        t.root.toString(sb, 1);
+      }
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Checks if the current key of the first node is strictly smaller than that of the second one.
+   * @param a first node
+   * @param b second node
+   * @return {@code true} if {@code a}'s key is smaller than {@code b}'s, {@code false} otherwise
+   */
+  private boolean less(final SoftNode<V, P> a, final SoftNode<V, P> b) {
+    return this.comp.compare(a.ckey, b.ckey) < 0;
+  }
+
+  /**
+   * Merges the given root list into this heap's root list and links trees of equal rank like
+   * in a binomial heap. <em>O(log n)</em>, but amortized <em>O(1)</em> for insertions
+   * @param list first tree of the other root list
+   * @param listRank rank of the last tree in the other root list
+   */
+  private void meld(final Tree<V, P> list, final int listRank) {
+    if(this.first == null) {
+      this.first = list;
+      this.rank = listRank;
+      return;
+    }
+
+    // merge the root list with fewer ranks into the other one
+    Tree<V, P> p = list, q = this.first;
+    int k = listRank;
+    if(listRank > this.rank) {
+      p = this.first;
+      q = list;
+      k = this.rank;
+      this.rank = listRank;
+    }
+    Tree<V, P> y = q;
+    for(Tree<V, P> x = p; x != null;) {
+      final Tree<V, P> next = x.next;
+      while(y.root.rank < x.root.rank) {
+        y = y.next;
+      }
+      x.prev = y.prev;
+      x.next = y;
+      if(y.prev == null) {
+        q = x;
+      } else {
+        y.prev.next = x;
+      }
+      y.prev = x;
+      x = next;
+    }
+    this.first = q;
+
+    // link trees of equal rank, of three equal ones the last two are linked
+    Tree<V, P> x = q;
+    for(Tree<V, P> next = x.next; next != null; next = x.next) {
+      final int r = x.root.rank;
+      if(r != next.root.rank || next.next != null && next.next.root.rank == r) {
+        if(r > k) {
+          // no carry left and the remaining trees have distinct ranks
+          break;
+        }
+        x = next;
+      } else {
+        x.root = this.combine(x.root, next.root);
+        x.next = next.next;
+        if(next.next != null) {
+          next.next.prev = x;
+        }
+      }
+    }
+    this.rank = Math.max(this.rank, x.root.rank);
+    this.updateSuffixMin(x);
+  }
+
+  /**
+   * Links the roots of two trees of equal rank below a new root and fills it. <em>O(1)*</em>
+   * @param a first root
+   * @param b second root
+   * @return the new root
+   */
+  private SoftNode<V, P> combine(final SoftNode<V, P> a, final SoftNode<V, P> b) {
+    final SoftNode<V, P> z = new SoftNode<>(a.rank + 1);
+    z.left = a;
+    z.right = b;
+    z.size = z.rank <= this.maxExact ? 1 : (3 * a.size + 1) / 2;
+    this.sift(z);
+    return z;
+  }
+
+  /**
+   * Moves entries up from the child with the smaller current key until the given node holds
+   * enough entries or has no children. The moved entries all get that child's current key,
+   * which corrupts the entries that already were in the node. <em>O(1)*</em>
+   * @param x node to fill
+   */
+  private void sift(final SoftNode<V, P> x) {
+    while(x.num < x.size && !x.isLeaf()) {
+      if(x.left == null || x.right != null && this.less(x.right, x.left)) {
+        final SoftNode<V, P> temp = x.left;
+        x.left = x.right;
+        x.right = temp;
+      }
+      final SoftNode<V, P> l = x.left;
+      if(x.head == null) {
+        x.head = l.head;
+      } else {
+        x.tail.next = l.head;
+      }
+      x.tail = l.tail;
+      x.num += l.num;
+      x.ckey = l.ckey;
+      l.head = l.tail = null;
+      l.num = 0;
+      if(l.isLeaf()) {
+        x.left = null;
+      } else {
+        this.sift(l);
+      }
+    }
+  }
+
+  /**
+   * Recomputes the suffix minima from the given tree back to the first one. <em>O(log n)</em>
+   * @param tree last tree whose suffix minimum changed, may be {@code null}
+   */
+  private void updateSuffixMin(final Tree<V, P> tree) {
+    for(Tree<V, P> t = tree; t != null; t = t.prev) {
+      final Tree<V, P> next = t.next;
+      t.sufmin = next == null || !this.less(next.sufmin.root, t.root) ? t : next.sufmin;
+    }
+  }
+
+  /**
+   * An entry in a {@link SoftHeap}.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  private static final class Item<V, P> {
+    /** Original key. */
+    final P key;
+    /** Value. */
+    final V value;
+    /** Next entry in the same node. */
+    Item<V, P> next;
+
+    /**
+     * Constructor.
+     * @param key key
+     * @param value value
+     */
+    Item(final P key, final V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /**
+   * A node in one of the binary trees of a {@link SoftHeap}, holding a list of entries that
+   * share a common current key.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  private static final class SoftNode<V, P> {
+    /** Rank of this node. */
+    final int rank;
+    /** Number of entries that this node should hold. */
+    int size = 1;
+    /** Number of entries in this node. */
+    int num;
+    /** Current key of all entries, not smaller than any of their original keys. */
+    P ckey;
+    /** First entry. */
+    Item<V, P> head;
+    /** Last entry. */
+    Item<V, P> tail;
+    /** Left child. */
+    SoftNode<V, P> left;
+    /** Right child. */
+    SoftNode<V, P> right;
+
+    /**
+     * Constructor for a node that is filled later.
+     * @param rank rank of the node
+     */
+    SoftNode(final int rank) {
+      this.rank = rank;
+    }
+
+    /**
+     * Constructor for a leaf holding a single entry.
+     * @param item the entry
+     */
+    SoftNode(final Item<V, P> item) {
+      this.rank = 0;
+      this.num = 1;
+      this.ckey = item.key;
+      this.head = this.tail = item;
+    }
+
+    /**
+     * Checks if this node has no children.
+     * @return result of check
+     */
+    boolean isLeaf() {
+      return this.left == null && this.right == null;
+    }
+
+    /**
+     * Recursive helper for {@link SoftHeap#toString()}.
+     * @param sb string builder
+     * @param indent indentation level
+     */
+    void toString(final StringBuilder sb, final int indent) {
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("Node#").append(this.rank).append("[").append(this.ckey).append(':');
+      for(Item<V, P> it = this.head; it != null; it = it.next) {
+        sb.append(" (").append(it.key).append(", ").append(it.value).append(')');
+      }
+      sb.append('\n');
+      if(this.left != null) {
+        this.left.toString(sb, indent + 1);
+      }
+      if(this.right != null) {
+        this.right.toString(sb, indent + 1);
+      }
+      for(int i = 0; i < indent; i++) {
+        sb.append("  ");
+      }
+      sb.append("]\n");
+    }
+  }
+
+  /**
+   * An entry in the root list of a {@link SoftHeap}.
+   * @param <V> value type
+   * @param <P> priority type
+   */
+  private static final class Tree<V, P> {
+    /** Root of the tree. */
+    SoftNode<V, P> root;
+    /** Previous tree with a smaller rank. */
+    Tree<V, P> prev;
+    /** Next tree with a larger rank. */
+    Tree<V, P> next;
+    /** Tree with the smallest current key among this one and all following ones. */
+    Tree<V, P> sufmin;
+
+    /**
+     * Constructor.
+     * @param root root of the tree
+     */
+    Tree(final SoftNode<V, P> root) {
+      this.root = root;
+      this.sufmin = this;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for the {@link ArrayDaryHeap array-backed d-ary heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class ArrayDaryHeapTest {
+  /** Tests sorting using heap-sort, growing the heap on the way. */
+  @Test
+  public void sortTest() {
+    for(final int d : new int[] { 2, 4, 8 }) {
+      final ArrayDaryHeap heap = new ArrayDaryHeap(d, 16);
+      final List<Integer> rand = new ArrayList<>();
+      for(int i = 0; i < 100000; i++) {
+        rand.add(i);
+      }
+      Collections.shuffle(rand);
+
+      for(final int i : rand) {
+        heap.insert(i, i / 2.0);
+      }
+      assertEquals(100000, heap.size());
+
+      for(int i = 0; i < 100000; i++) {
+        assertEquals(i, heap.getMin());
+        assertEquals(i / 2.0, heap.getKey(i), 0);
+        assertEquals(i, heap.extractMin());
+        assertFalse(heap.contains(i));
+      }
+      assertTrue(heap.isEmpty());
+      assertEquals(ArrayDaryHeap.NONE, heap.getMin());
+    }
+  }
+
+  /** Checks the heap against a {@link TreeSet} using random operations. */
+  @Test
+  public void randomOperations() {
+    final Random rnd = new Random(1337);
+    final ArrayDaryHeap heap = new ArrayDaryHeap(4, 1);
+    final double[] keys = new double[1000];
+    final TreeSet<Long> ref = new TreeSet<>();
+    for(int op = 0; op < 100000; op++) {
+      final int h = rnd.nextInt(keys.length);
+      if(!heap.contains(h)) {
+        keys[h] = rnd.nextInt(1000);
+        heap.insert(h, keys[h]);
+        ref.add(HeapChecks.entry((int) keys[h], h));
+      } else if(rnd.nextBoolean()) {
+        final long first = ref.pollFirst();
+        final int mn = heap.extractMin();
+        assertEquals(first >> 32, (long) keys[mn]);
+        if(mn != (int) first) {
+          // equal keys can be extracted in any order
+          assertTrue(ref.remove(HeapChecks.entry((int) keys[mn], mn)));
+          ref.add(first);
+        }
+      } else {
+        ref.remove(HeapChecks.entry((int) keys[h], h));
+        keys[h] -= rnd.nextInt(100);
+        heap.decreaseKey(h, keys[h]);
+        ref.add(HeapChecks.entry((int) keys[h], h));
+      }
+      assertEquals(ref.size(), heap.size());
+      if(!ref.isEmpty()) {
+        assertEquals(ref.first() >> 32, (long) heap.getKey(heap.getMin()));
+      }
+    }
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    try {
+      new ArrayDaryHeap(3, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    final ArrayDaryHeap heap = new ArrayDaryHeap(2, 1);
+    heap.insert(0, 0);
+    try {
+      // insert a handle twice
+      heap.insert(0, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // negative handle
+      heap.insert(-1, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // increase a key
+      heap.decreaseKey(0, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // unordered key
+      heap.decreaseKey(0, Double.NaN);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals(0, heap.extractMin());
+    try {
+      // handle not in the heap
+      heap.getKey(0);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for the {@link ArrayFibHeap array-backed fibonacci heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class ArrayFibHeapTest {
+  /** Tests sorting using heap-sort, growing the heap on the way. */
+  @Test
+  public void sortTest() {
+    final ArrayFibHeap heap = new ArrayFibHeap(16);
+
+    final List<Integer> rand = new ArrayList<>(1000);
+    for(int i = 0; i < 100000; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand);
+
+    for(final int i : rand) {
+      heap.insert(i, i / 2.0);
+    }
+
+    for(int i = 0; i < 100000; i++) {
+      assertEquals(i, heap.getMin());
+      assertEquals(i / 2.0, heap.getKey(i), 0);
+      assertEquals(i, heap.extractMin());
+      assertFalse(heap.contains(i));
+    }
+    assertTrue(heap.isEmpty());
+    assertEquals(ArrayFibHeap.NONE, heap.getMin());
+  }
+
+  /** Tests decreasing keys so that a cascading cut is triggered. */
+  @Test
+  public void cascadingCut() {
+    final ArrayFibHeap heap = new ArrayFibHeap(9);
+    for(int i = 0; i < 9; i++) {
+      heap.insert(i, i);
+    }
+
+    assertEquals(0, heap.extractMin());
+    heap.decreaseKey(2, 0);
+    assertEquals(2, heap.extractMin());
+    heap.decreaseKey(6, 0);
+    assertEquals(6, heap.extractMin());
+    heap.decreaseKey(8, 0);
+    assertEquals(8, heap.extractMin());
+
+    heap.decreaseKey(7, 0);
+
+    for(int i : new int[] {7, 1, 3, 4, 5}) {
+      assertEquals(i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+
+    // handles can be re-used after extraction
+    heap.insert(7, 1);
+    assertTrue(heap.contains(7));
+    assertEquals(7, heap.extractMin());
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final ArrayFibHeap heap = new ArrayFibHeap(1);
+    heap.insert(0, 0);
+    try {
+      // insert a handle twice
+      heap.insert(0, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // increase a key
+      heap.decreaseKey(0, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    assertEquals(0, heap.extractMin());
+    try {
+      // try decreasing the key of an invalid handle
+      heap.decreaseKey(0, -1);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+  }
+}
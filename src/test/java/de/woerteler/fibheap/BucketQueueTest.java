@@ -0,0 +1,136 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.BucketQueue.BucketNode;
+
+/**
+ * Tests for the {@link BucketQueue bucket queue}.
+ *
+ * @author Leo Woerteler
+ */
+public class BucketQueueTest {
+  /** Checks the queue against a {@link TreeSet} using random monotone operations. */
+  @Test
+  public void randomOperations() {
+    final Random rnd = new Random(1337);
+    final int maxWeight = 100;
+    final BucketQueue<Integer> queue = BucketQueue.newQueue(maxWeight);
+    final List<BucketNode<Integer>> nodes = new ArrayList<>();
+    final TreeSet<Long> ref = new TreeSet<>();
+
+    for(int op = 0; op < 100000; op++) {
+      final int last = (int) queue.lastMin();
+      final int r = rnd.nextInt(10);
+      if(r < 4 || ref.isEmpty()) {
+        final int k = last + rnd.nextInt(maxWeight + 1);
+        ref.add(HeapChecks.entry(k, nodes.size()));
+        nodes.add(queue.insert(nodes.size(), k));
+      } else if(r < 7) {
+        // entries with equal keys can be extracted in any order
+        final long first = ref.first();
+        final int v = queue.extractMin();
+        final BucketNode<Integer> node = nodes.get(v);
+        assertEquals(first >> 32, node.getKeyAsLong());
+        assertEquals(node.getKeyAsLong(), queue.lastMin());
+        assertTrue(ref.remove(HeapChecks.entry((int) node.getKeyAsLong(), v)));
+        assertFalse(node.isValid());
+      } else {
+        final BucketNode<Integer> node = nodes.get(rnd.nextInt(nodes.size()));
+        if(!node.isValid()) {
+          continue;
+        }
+        final int k = (int) node.getKeyAsLong(), v = node.getValue();
+        ref.remove(HeapChecks.entry(k, v));
+        if(r < 9) {
+          final int k2 = Math.max(last, k - rnd.nextInt(10));
+          node.decreaseKey(k2);
+          ref.add(HeapChecks.entry(k2, v));
+        } else {
+          node.delete();
+        }
+      }
+      assertEquals(ref.size(), queue.size());
+      if(!ref.isEmpty()) {
+        assertEquals(ref.first() >> 32, queue.getMin().getKeyAsLong());
+      }
+    }
+  }
+
+  /** Tests a queue that only allows a single key at a time. */
+  @Test
+  public void zeroWeight() {
+    final BucketQueue<String> queue = BucketQueue.newQueue(0);
+    queue.insert("a", 0);
+    queue.insert("b", 0);
+    assertEquals(2, queue.size());
+    assertNotNull(queue.extractMin());
+    assertNotNull(queue.extractMin());
+    assertTrue(queue.isEmpty());
+    assertNull(queue.getMin());
+  }
+
+  /** Tests the queue's error conditions. */
+  @Test
+  public void errorConditions() {
+    try {
+      BucketQueue.newQueue(-1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    final BucketQueue<String> queue = BucketQueue.newQueue(10);
+    assertEquals(10, queue.maxWeight());
+    try {
+      // key beyond the maximum weight
+      queue.insert("v11", 11);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    final BucketNode<String> v5 = queue.insert("v5", 5);
+    queue.insert("v3", 3);
+    assertEquals("v3", queue.extractMin());
+    try {
+      // insert a key below the last minimum
+      queue.insert("v2", 2);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // decrease a key below the last minimum
+      v5.decreaseKey(2);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // increase a key
+      v5.decreaseKey(6);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    v5.delete();
+    assertFalse(v5.isValid());
+    try {
+      // decrease the key of an invalid node
+      v5.decreaseKey(3);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from an empty queue
+      queue.extractMin();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+}
@@ -7,7 +7,10 @@ import java.util.Map.Entry;
 
 import org.junit.*;
 
+import de.woerteler.fibheap.AddressableHeap.Handle;
+import de.woerteler.fibheap.BucketQueue.BucketNode;
 import de.woerteler.fibheap.FibHeap.FibNode;
+import de.woerteler.fibheap.RadixHeap.RadixNode;
 
 /**
  * Tests for the {@link FibHeap fibonacci heap} that use it to implement Dijkstra's algorithm.
@@ -139,6 +142,146 @@ public class DijkstraTest {
     return dists;
   }
 
+  /**
+   * Implementation of Dijkstra's algorithm on an {@link ArrayFibHeap} using the vertex IDs
+   * as handles.
+   * @param vs the graph
+   * @param start start vertex
+   * @return distances from the start vertex, indexed by vertex ID
+   */
+  private static double[] dijkstraArray(final Vertex[] vs, final Vertex start) {
+    final double[] dists = new double[vs.length];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    final boolean[] closed = new boolean[vs.length];
+
+    final ArrayFibHeap heap = new ArrayFibHeap(1);
+    dists[start.id] = 0;
+    heap.insert(start.id, 0);
+
+    while(!heap.isEmpty()) {
+      final int s = heap.extractMin();
+      closed[s] = true;
+
+      for(final Edge e : vs[s].edges) {
+        final int t = e.target.id;
+        final double newDist = dists[s] + e.weight;
+        if(!closed[t] && newDist < dists[t]) {
+          if(heap.contains(t)) {
+            heap.decreaseKey(t, newDist);
+          } else {
+            heap.insert(t, newDist);
+          }
+          dists[t] = newDist;
+        }
+      }
+    }
+    return dists;
+  }
+
+  /**
+   * Implementation of Dijkstra's algorithm on an arbitrary {@link AddressableHeap}.
+   * @param vs the graph
+   * @param start start vertex
+   * @param heap empty heap
+   * @return distances from the start vertex, indexed by vertex ID
+   */
+  private static double[] dijkstraHeap(final Vertex[] vs, final Vertex start,
+      final AddressableHeap<Vertex, Double> heap) {
+    final double[] dists = new double[vs.length];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    @SuppressWarnings("unchecked")
+    final Handle<Vertex, Double>[] handles = new Handle[vs.length];
+
+    dists[start.id] = 0;
+    handles[start.id] = heap.insert(start, 0.0);
+    while(!heap.isEmpty()) {
+      final Vertex s = heap.extractMin();
+      for(final Edge e : s.edges) {
+        final int t = e.target.id;
+        final double newDist = dists[s.id] + e.weight;
+        if(newDist < dists[t]) {
+          if(handles[t] == null) {
+            handles[t] = heap.insert(e.target, newDist);
+          } else {
+            handles[t].decreaseKey(newDist);
+          }
+          dists[t] = newDist;
+        }
+      }
+    }
+    return dists;
+  }
+
+  /**
+   * Implementation of Dijkstra's algorithm on a {@link RadixHeap}, the edge weights are
+   * rounded to integers.
+   * @param vs the graph
+   * @param start start vertex
+   * @return distances from the start vertex, indexed by vertex ID
+   */
+  private static double[] dijkstraRadix(final Vertex[] vs, final Vertex start) {
+    final double[] dists = new double[vs.length];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    @SuppressWarnings("unchecked")
+    final RadixNode<Vertex>[] nodes = new RadixNode[vs.length];
+
+    final RadixHeap<Vertex> heap = RadixHeap.newHeap();
+    dists[start.id] = 0;
+    nodes[start.id] = heap.insert(start, 0);
+    while(!heap.isEmpty()) {
+      final Vertex s = heap.extractMin();
+      for(final Edge e : s.edges) {
+        final int t = e.target.id;
+        final long newDist = (long) dists[s.id] + Math.round(e.weight);
+        if(newDist < dists[t]) {
+          if(nodes[t] == null) {
+            nodes[t] = heap.insert(e.target, newDist);
+          } else {
+            nodes[t].decreaseKey(newDist);
+          }
+          dists[t] = newDist;
+        }
+      }
+    }
+    return dists;
+  }
+
+  /**
+   * Implementation of Dial's variant of Dijkstra's algorithm on a {@link BucketQueue}, the edge
+   * weights are rounded to integers.
+   * @param vs the graph
+   * @param start start vertex
+   * @param maxWeight maximum edge weight
+   * @return distances from the start vertex, indexed by vertex ID
+   */
+  private static double[] dijkstraBuckets(final Vertex[] vs, final Vertex start,
+      final int maxWeight) {
+    final double[] dists = new double[vs.length];
+    Arrays.fill(dists, Double.POSITIVE_INFINITY);
+    @SuppressWarnings("unchecked")
+    final BucketNode<Vertex>[] nodes = new BucketNode[vs.length];
+
+    final BucketQueue<Vertex> queue = BucketQueue.newQueue(maxWeight);
+    dists[start.id] = 0;
+    nodes[start.id] = queue.insert(start, 0);
+    while(!queue.isEmpty()) {
+      final Vertex s = queue.extractMin();
+      for(final Edge e : s.edges) {
+        final int t = e.target.id;
+        final long newDist = (long) dists[s.id] + Math.round(e.weight);
+        if(newDist < dists[t]) {
+          if(nodes[t] == null) {
+            nodes[t] = queue.insert(e.target, newDist);
+          } else {
+            nodes[t].decreaseKey(newDist);
+          }
+          dists[t] = newDist;
+        }
+      }
+    }
+    return dists;
+  }
+
   /**
    * Implementation of Floyd & Warshall's all-pairs-shortest-paths algorithm.
    * @param vs the graph
@@ -240,6 +383,21 @@ public class DijkstraTest {
         final VertexData data = e.getValue();
         assertEquals(dist[v.id][w.id], data.distance, 0);
       }
+      assertArrayEquals(dist[v.id], dijkstraArray(vertices, v), 0);
+      assertArrayEquals(dist[v.id], dijkstraHeap(vertices, v,
+          FibHeap.<Vertex, Double>newComparableHeap()), 0);
+      assertArrayEquals(dist[v.id], dijkstraHeap(vertices, v,
+          PairingHeap.<Vertex, Double>newComparableHeap()), 0);
+      for(final RankPairingHeap.RankRule rule : RankPairingHeap.RankRule.values()) {
+        assertArrayEquals(dist[v.id], dijkstraHeap(vertices, v,
+            RankPairingHeap.<Vertex, Double>newComparableHeap(rule)), 0);
+      }
+      assertArrayEquals(dist[v.id], dijkstraHeap(vertices, v,
+          HollowHeap.<Vertex, Double>newComparableHeap()), 0);
+      assertArrayEquals(dist[v.id], dijkstraHeap(vertices, v,
+          IndexedDaryHeap.<Vertex, Double>newComparableHeap(4)), 0);
+      assertArrayEquals(dist[v.id], dijkstraRadix(vertices, v), 0);
+      assertArrayEquals(dist[v.id], dijkstraBuckets(vertices, v, 502), 0);
     }
   }
 }
@@ -0,0 +1,113 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.DoubleFibHeap.DoubleFibNode;
+
+/**
+ * Tests for the {@link DoubleFibHeap fibonacci heap with primitive keys}.
+ *
+ * @author Leo Woerteler
+ */
+public class DoubleFibHeapTest {
+  /** Tests sorting doubles using heap-sort. */
+  @Test
+  public void sortTest() {
+    final DoubleFibHeap<String> heap = DoubleFibHeap.newHeap();
+
+    final List<Integer> rand = new ArrayList<>(1000);
+    for(int i = 0; i < 100000; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand);
+
+    for(final int i : rand) {
+      heap.insert("v" + i, i / 2.0);
+    }
+
+    for(int i = 0; i < 100000; i++) {
+      assertFalse(heap.isEmpty());
+      assertEquals(i / 2.0, heap.getMin().getKeyAsDouble(), 0);
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Tests decreasing keys so that a cascading cut is triggered. */
+  @Test
+  public void cascadingCut() {
+    final DoubleFibHeap<String> heap = DoubleFibHeap.newHeap();
+    final List<DoubleFibNode<String>> nodes = new ArrayList<>();
+    for(int i = 0; i < 9; i++) {
+      nodes.add(heap.insert("v" + i, i));
+    }
+
+    assertEquals("v0", heap.extractMin());
+    nodes.get(2).decreaseKey(-0.5);
+    assertEquals("v2", heap.extractMin());
+    nodes.get(6).decreaseKey(-0.5);
+    assertEquals("v6", heap.extractMin());
+    nodes.get(8).decreaseKey(-0.5);
+    assertEquals("v8", heap.extractMin());
+
+    nodes.get(7).decreaseKey(Double.NEGATIVE_INFINITY);
+    assertEquals(Double.NEGATIVE_INFINITY, nodes.get(7).getKeyAsDouble(), 0);
+
+    for(int i : new int[] {7, 1, 3, 4, 5}) {
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final DoubleFibHeap<String> heap = DoubleFibHeap.newHeap();
+    try {
+      // insert an unordered key
+      heap.insert("nan", Double.NaN);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    final DoubleFibNode<String> v0 = heap.insert("v0", 0);
+    try {
+      // increase a key
+      v0.decreaseKey(0.5);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // decrease to an unordered key
+      v0.decreaseKey(Double.NaN);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    assertEquals("v0", heap.extractMin());
+    assertFalse(v0.isValid());
+    try {
+      // try decreasing the key of an invalid node
+      v0.decreaseKey(-1);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+
+    assertTrue(heap.isEmpty());
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+  }
+}
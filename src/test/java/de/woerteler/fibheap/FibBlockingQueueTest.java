@@ -0,0 +1,167 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.FibBlockingQueue.Handle;
+
+/**
+ * Tests for the {@link FibBlockingQueue blocking queue}.
+ *
+ * @author Leo Woerteler
+ */
+public class FibBlockingQueueTest {
+  /** Tests the queue operations in a single thread. */
+  @Test
+  public void singleThreaded() throws InterruptedException {
+    final FibBlockingQueue<Integer> queue = new FibBlockingQueue<>();
+    assertNull(queue.poll());
+    assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+    for(final int i : new int[] { 5, 3, 8, 1, 9, 2, 7 }) {
+      queue.put(i);
+    }
+    assertEquals(7, queue.size());
+    assertEquals(Integer.valueOf(1), queue.peek());
+    assertEquals(Integer.valueOf(1), queue.take());
+    assertTrue(queue.remove(8));
+    assertFalse(queue.remove(8));
+    assertTrue(queue.contains(9));
+
+    final List<Integer> sink = new ArrayList<>();
+    assertEquals(3, queue.drainTo(sink, 3));
+    assertEquals(Arrays.asList(2, 3, 5), sink);
+    assertEquals(Integer.valueOf(7), queue.poll(1, TimeUnit.SECONDS));
+    assertEquals(1, queue.drainTo(sink));
+    assertEquals(Arrays.asList(2, 3, 5, 9), sink);
+    assertTrue(queue.isEmpty());
+  }
+
+  /** Tests decreasing and deleting elements through their handles. */
+  @Test
+  public void handles() {
+    final FibBlockingQueue<Integer> queue = new FibBlockingQueue<>();
+    final List<Handle<Integer>> handles = new ArrayList<>();
+    for(int i = 0; i < 10; i++) {
+      handles.add(queue.offerHandle(10 * i));
+    }
+    // the handles are still staged
+    handles.get(7).decreaseKey(5);
+    assertEquals(Integer.valueOf(5), handles.get(7).getElement());
+    handles.get(4).delete();
+    assertFalse(handles.get(4).isValid());
+    assertEquals(Integer.valueOf(0), queue.poll());
+    assertFalse(handles.get(0).isValid());
+    for(final int i : new int[] { 5, 10, 20, 30, 50, 60, 80, 90 }) {
+      assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+
+    try {
+      handles.get(0).decreaseKey(-1);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    final Handle<Integer> h = queue.offerHandle(3);
+    try {
+      h.decreaseKey(4);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /** Tests that consumers blocked in {@link FibBlockingQueue#take()} are woken up. */
+  @Test(timeout = 10000)
+  public void blockingTake() throws Exception {
+    final FibBlockingQueue<Integer> queue = new FibBlockingQueue<>();
+    final ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Integer> a = pool.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws InterruptedException {
+          return queue.take();
+        }
+      });
+      final Future<Integer> b = pool.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws InterruptedException {
+          return queue.take();
+        }
+      });
+      Thread.sleep(50);
+      queue.offer(1);
+      queue.offer(2);
+      assertEquals(3, a.get() + b.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /** Tests concurrent producers and consumers, every element has to be taken exactly once. */
+  @Test(timeout = 60000)
+  public void producersAndConsumers() throws Exception {
+    final int threads = 4, perThread = 25000;
+    final FibBlockingQueue<Integer> queue = new FibBlockingQueue<>();
+    final AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+    final ExecutorService pool = Executors.newFixedThreadPool(2 * threads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for(int t = 0; t < threads; t++) {
+        final int offset = t * perThread;
+        futures.add(pool.submit(new Runnable() {
+          @Override
+          public void run() {
+            for(int i = 0; i < perThread; i++) {
+              queue.offer(offset + i);
+            }
+          }
+        }));
+        futures.add(pool.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws InterruptedException {
+            for(int i = 0; i < perThread; i++) {
+              final int e = queue.take();
+              seen.incrementAndGet(e);
+            }
+            return null;
+          }
+        }));
+      }
+      for(final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertTrue(queue.isEmpty());
+    for(int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  /** Tests the queue's error conditions. */
+  @Test
+  public void errorConditions() {
+    final FibBlockingQueue<Integer> queue = new FibBlockingQueue<>();
+    try {
+      queue.offer(null);
+      fail();
+    } catch(final NullPointerException e) {
+      // expected
+    }
+    try {
+      queue.drainTo(queue);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals(Integer.MAX_VALUE, queue.remainingCapacity());
+  }
+}
@@ -132,6 +132,543 @@ public class FibHeapTest {
     assertTrue(heap.isEmpty());
   }
 
+  /** Tests melding heaps and using the nodes of the donor heap afterwards. */
+  @Test
+  public void meld() {
+    final List<FibHeap<String, Integer>> heaps = new ArrayList<>();
+    final List<FibNode<String, Integer>> nodes = new ArrayList<>();
+    for(int h = 0; h < 4; h++) {
+      final FibHeap<String, Integer> heap = FibHeap.newComparableHeap();
+      for(int i = h; i < 40; i += 4) {
+        nodes.add(heap.insert("v" + i, i));
+      }
+      // consolidate some of the heaps
+      if(h % 2 == 0) {
+        heap.insert("tmp", -1);
+        assertEquals("tmp", heap.extractMin());
+      }
+      heaps.add(heap);
+    }
+
+    // meld in a chain so that ownership is forwarded several times
+    heaps.get(2).meld(heaps.get(3));
+    heaps.get(1).meld(heaps.get(2));
+    heaps.get(0).meld(heaps.get(1));
+    for(int h = 1; h < 4; h++) {
+      assertTrue(heaps.get(h).isEmpty());
+    }
+
+    final FibHeap<String, Integer> heap = heaps.get(0);
+    assertEquals("v0", heap.getMin().getValue());
+    for(final FibNode<String, Integer> node : nodes) {
+      if(node.getValue().equals("v39")) {
+        // node from the last heap of the chain
+        node.decreaseKey(-1);
+      }
+    }
+    assertEquals("v39", heap.extractMin());
+    for(int i = 0; i < 39; i++) {
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+
+    // donor heaps stay usable
+    final FibHeap<String, Integer> donor = heaps.get(3);
+    donor.insert("w", 1);
+    heap.meld(donor);
+    assertEquals("w", heap.extractMin());
+
+    try {
+      // meld a heap with itself
+      heap.meld(heap);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // meld heaps with different orders
+      heap.meld(FibHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder()));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /** Tests deleting nodes and increasing keys. */
+  @Test
+  public void deleteAndIncrease() {
+    final FibHeap<String, Integer> heap = FibHeap.newComparableHeap();
+    final List<FibNode<String, Integer>> nodes = new ArrayList<>();
+    for(int i = 0; i < 9; i++) {
+      nodes.add(heap.insert("v" + i, i));
+    }
+
+    // trigger consolidation
+    assertEquals("v0", heap.extractMin());
+
+    // delete an inner node, a root and the minimum
+    nodes.get(6).delete();
+    assertFalse(nodes.get(6).isValid());
+    nodes.get(1).delete();
+    assertEquals("v2", heap.getMin().getValue());
+    nodes.get(2).delete();
+
+    // move the minimum and an inner node to the end
+    nodes.get(3).increaseKey(10);
+    nodes.get(7).increaseKey(9);
+    assertEquals(Integer.valueOf(10), nodes.get(3).getKey());
+
+    for(int i : new int[] {4, 5, 8, 7, 3}) {
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Compares random sequences of all operations against a sorted set. */
+  @Test
+  public void randomOperations() {
+    for(final ConsolidationMode mode : ConsolidationMode.values()) {
+      randomOperations(mode);
+    }
+  }
+
+  /**
+   * Compares a random sequence of all operations against a sorted set.
+   * @param mode consolidation mode of the heap
+   */
+  private static void randomOperations(final ConsolidationMode mode) {
+    final Random rnd = new Random(1337);
+    final FibHeap<Integer, Integer> heap = FibHeap.newComparableHeap();
+    heap.setConsolidationMode(mode);
+    // a tiny budget leaves many roots pending
+    heap.setConsolidationBudget(2);
+    final List<FibNode<Integer, Integer>> nodes = new ArrayList<>();
+    final TreeSet<Long> ref = new TreeSet<>();
+
+    for(int op = 0; op < 100000; op++) {
+      final int r = rnd.nextInt(10);
+      if(r < 4 || ref.isEmpty()) {
+        final int k = rnd.nextInt(1000);
+        ref.add(entry(k, nodes.size()));
+        nodes.add(heap.insert(nodes.size(), k));
+      } else if(r < 6) {
+        // entries with equal keys can be extracted in any order
+        final long first = ref.first();
+        final int v = heap.extractMin();
+        assertEquals(first >> 32, nodes.get(v).getKey().longValue());
+        assertTrue(ref.remove(entry(nodes.get(v).getKey(), v)));
+      } else {
+        final FibNode<Integer, Integer> node = nodes.get(rnd.nextInt(nodes.size()));
+        if(!node.isValid()) {
+          continue;
+        }
+        final int k = node.getKey(), v = node.getValue();
+        ref.remove(entry(k, v));
+        if(r < 8) {
+          final int k2 = k - rnd.nextInt(100);
+          node.decreaseKey(k2);
+          ref.add(entry(k2, v));
+        } else if(r < 9) {
+          final int k2 = k + rnd.nextInt(100);
+          node.increaseKey(k2);
+          ref.add(entry(k2, v));
+        } else {
+          node.delete();
+        }
+      }
+      assertEquals(ref.isEmpty(), heap.isEmpty());
+      assertEquals(ref.size(), heap.size());
+      if(!ref.isEmpty()) {
+        assertEquals(ref.first() >> 32, heap.getMin().getKey().longValue());
+      }
+      if(op % 1000 == 0) {
+        checkStatistics(heap);
+      }
+    }
+  }
+
+  /** Tests the heap statistics. */
+  @Test
+  public void statistics() {
+    final FibHeap<String, Integer> heap = FibHeap.newComparableHeap();
+    assertEquals(0, heap.size());
+    assertEquals(0, heap.maxDegree());
+    final List<FibNode<String, Integer>> nodes = new ArrayList<>();
+    for(int i = 0; i < 9; i++) {
+      nodes.add(heap.insert("v" + i, i));
+    }
+    assertEquals(9, heap.size());
+    assertEquals(9, heap.rootListLength());
+    assertEquals(0, heap.maxDegree());
+
+    // consolidation leaves a binomial tree of degree 3
+    assertEquals("v0", heap.extractMin());
+    assertEquals(8, heap.size());
+    assertEquals(1, heap.rootListLength());
+    assertEquals(3, heap.maxDegree());
+    checkStatistics(heap);
+
+    // cutting a grandchild marks its parent
+    nodes.get(8).decreaseKey(0);
+    assertEquals(1, heap.markedNodes());
+    assertEquals(2, heap.rootListLength());
+    checkStatistics(heap);
+
+    final FibHeap<String, Integer> other = FibHeap.newComparableHeap();
+    other.insert("w", 5);
+    heap.meld(other);
+    assertEquals(9, heap.size());
+    assertEquals(0, other.size());
+    assertEquals(3, heap.rootListLength());
+    checkStatistics(heap);
+
+    while(!heap.isEmpty()) {
+      heap.extractMin();
+      checkStatistics(heap);
+    }
+    assertEquals(0, heap.size());
+    assertEquals(0, heap.rootListLength());
+    assertEquals(0, heap.markedNodes());
+    assertEquals(0, heap.maxDegree());
+  }
+
+  /** Tests that eager consolidation never leaves two roots with the same degree. */
+  @Test
+  public void eagerConsolidation() {
+    final FibHeap<Integer, Integer> heap = FibHeap.newComparableHeap();
+    final Integer[] values = new Integer[1000];
+    for(int i = 0; i < values.length; i++) {
+      values[i] = i;
+    }
+    heap.insertAll(values, values, null);
+    assertEquals(1000, heap.rootListLength());
+
+    // switching the mode consolidates the existing roots
+    assertSame(ConsolidationMode.LAZY, heap.consolidationMode());
+    heap.setConsolidationMode(ConsolidationMode.EAGER);
+    assertSame(ConsolidationMode.EAGER, heap.consolidationMode());
+    checkStatistics(heap);
+    assertEquals(Integer.bitCount(1000), heap.rootListLength());
+
+    // single inserts carry like a binary counter
+    for(int i = 1000; i < 1024; i++) {
+      heap.insert(i, i);
+      checkStatistics(heap);
+    }
+    assertEquals(1, heap.rootListLength());
+
+    // melding a lazy heap
+    final FibHeap<Integer, Integer> other = FibHeap.newComparableHeap();
+    for(int i = 1024; i < 1100; i++) {
+      other.insert(i, i);
+    }
+    heap.meld(other);
+    checkStatistics(heap);
+
+    // batch extraction and cuts
+    final List<Integer> out = new ArrayList<>();
+    assertEquals(10, heap.extractMin(10, out));
+    checkStatistics(heap);
+    assertEquals(10, heap.getMin().getKey().intValue());
+    assertEquals(5, heap.extractUpTo(14, out));
+    checkStatistics(heap);
+    for(int i = 0; i < 15; i++) {
+      assertEquals(i, out.get(i).intValue());
+    }
+
+    // back to lazy mode, the degree table is cleared
+    heap.setConsolidationMode(ConsolidationMode.LAZY);
+    heap.insert(-1, -1);
+    assertEquals(-1, heap.extractMin().intValue());
+    for(int i = 15; i < 1100; i++) {
+      assertEquals(i, heap.extractMin().intValue());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Tests incremental consolidation and explicit maintenance. */
+  @Test
+  public void incrementalConsolidation() {
+    final FibHeap<Integer, Integer> heap = FibHeap.newComparableHeap();
+    heap.setConsolidationMode(ConsolidationMode.INCREMENTAL);
+    heap.setConsolidationBudget(4);
+    assertEquals(4, heap.consolidationBudget());
+
+    // a burst of larger keys stays pending, the minimum comes from the degree table
+    for(int i = 0; i < 64; i++) {
+      heap.insert(i, i);
+    }
+    final Integer[] values = new Integer[1000];
+    for(int i = 0; i < values.length; i++) {
+      values[i] = 2000 - i;
+    }
+    heap.insertAll(values, values, null);
+    assertTrue(heap.rootListLength() > 900);
+    for(int i = 0; i < 10; i++) {
+      assertEquals(i, heap.extractMin().intValue());
+      checkStatistics(heap);
+    }
+    assertTrue(heap.rootListLength() > 900);
+
+    // maintenance consolidates the rest
+    int left = Integer.MAX_VALUE;
+    while(left > 0) {
+      final int l = heap.maintenance(100);
+      assertTrue(l < left);
+      left = l;
+    }
+    checkStatistics(heap);
+    assertTrue(heap.rootListLength() <= heap.maxDegree() + 1);
+
+    // extracting the smallest pending root only looks at the other pending roots
+    final Integer[] burst = new Integer[500];
+    burst[0] = -1;
+    burst[1] = 3000;
+    for(int i = 2; i < burst.length; i++) {
+      burst[i] = 5000 + i;
+    }
+    heap.insertAll(burst, burst, null);
+    assertEquals(-1, heap.extractMin().intValue());
+    assertTrue(heap.maintenance(0) > 400);
+    checkStatistics(heap);
+
+    // increasing the smallest pending key
+    @SuppressWarnings("unchecked")
+    final FibNode<Integer, Integer>[] nodes = new FibNode[2];
+    heap.insertAll(new Integer[] { -2, 2500 }, new Integer[] { -2, 2500 }, nodes);
+    nodes[0].increaseKey(3001);
+    for(int i = 10; i < 64; i++) {
+      assertEquals(i, heap.extractMin().intValue());
+    }
+    for(int i = 1001; i <= 2000; i++) {
+      assertEquals(i, heap.extractMin().intValue());
+    }
+    assertEquals(2500, heap.extractMin().intValue());
+    assertEquals(3000, heap.extractMin().intValue());
+    assertEquals(-2, heap.extractMin().intValue());
+    for(int i = 2; i < burst.length; i++) {
+      assertEquals(5000 + i, heap.extractMin().intValue());
+    }
+    assertTrue(heap.isEmpty());
+
+    try {
+      heap.setConsolidationBudget(0);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      heap.maintenance(-1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Checks the heap statistics against the heap's actual structure.
+   * @param heap heap to check
+   */
+  private static void checkStatistics(final FibHeap<?, ?> heap) {
+    final int[] counts = new int[4];
+    final BitSet degrees = new BitSet();
+    if(heap.min != null) {
+      FibNode<?, ?> root = heap.min;
+      do {
+        counts[1]++;
+        count(root, counts);
+        // eager consolidation allows only one root per degree
+        final boolean eager = heap.consolidationMode() == ConsolidationMode.EAGER;
+        assertFalse(eager && degrees.get(root.degree));
+        degrees.set(root.degree);
+        root = root.right;
+      } while(root != heap.min);
+    }
+    assertEquals(counts[0], heap.size());
+    assertEquals(counts[1], heap.rootListLength());
+    assertEquals(counts[2], heap.markedNodes());
+    assertEquals(counts[3], heap.maxDegree());
+  }
+
+  /**
+   * Counts the nodes, marked nodes and maximum degree of the given sub-tree.
+   * @param node root of the sub-tree
+   * @param counts array of counters
+   */
+  private static void count(final FibNode<?, ?> node, final int[] counts) {
+    counts[0]++;
+    counts[2] += node.lost ? 1 : 0;
+    counts[3] = Math.max(counts[3], node.degree);
+    if(node.firstChild != null) {
+      FibNode<?, ?> child = node.firstChild;
+      do {
+        count(child, counts);
+        child = child.right;
+      } while(child != node.firstChild);
+    }
+  }
+
+  /**
+   * Combines a key and a value into one ordered {@code long}.
+   * @param k key
+   * @param v value
+   * @return combined entry
+   */
+  private static long entry(final int k, final int v) {
+    return (long) k << 32 | v;
+  }
+
+  /** Tests inserting many entries at once. */
+  @Test
+  public void bulkInsert() {
+    final int n = 10000;
+    final List<Integer> rand = new ArrayList<>(n);
+    for(int i = 0; i < n; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand);
+
+    final String[] values = new String[n];
+    final Integer[] keys = new Integer[n];
+    for(int i = 0; i < n; i++) {
+      values[i] = "v" + rand.get(i);
+      keys[i] = rand.get(i);
+    }
+
+    final FibHeap<String, Integer> heap = FibHeap.of(values, keys);
+    assertEquals(n, heap.size());
+    assertEquals("v0", heap.getMin().getValue());
+
+    // second batch into a non-empty heap, keeping the nodes
+    @SuppressWarnings("unchecked")
+    final FibNode<String, Integer>[] nodes = new FibNode[n];
+    for(int i = 0; i < n; i++) {
+      keys[i] = -keys[i] - 1;
+      values[i] = "w" + rand.get(i);
+    }
+    heap.insertAll(values, keys, nodes);
+    assertEquals(2 * n, heap.size());
+    assertEquals("w" + (n - 1), heap.getMin().getValue());
+    for(int i = 0; i < n; i++) {
+      assertEquals(values[i], nodes[i].getValue());
+    }
+
+    // third batch from a map
+    final Map<String, Integer> map = new HashMap<>();
+    map.put("x", -n - 2);
+    map.put("y", -n - 1);
+    heap.insertAll(map);
+    assertEquals("x", heap.extractMin());
+    assertEquals("y", heap.extractMin());
+
+    for(int i = n - 1; i >= 0; i--) {
+      assertEquals("w" + i, heap.extractMin());
+    }
+    for(int i = 0; i < n; i++) {
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+
+    assertTrue(FibHeap.of(new HashMap<String, Integer>()).isEmpty());
+    try {
+      // arrays with different lengths
+      heap.insertAll(new String[1], new Integer[2], null);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /** Tests extracting several entries at once. */
+  @Test
+  public void batchExtract() {
+    final Random rnd = new Random(42);
+    final FibHeap<Integer, Integer> heap = FibHeap.newComparableHeap();
+    final List<FibNode<Integer, Integer>> nodes = new ArrayList<>();
+    final TreeSet<Long> ref = new TreeSet<>();
+    for(int round = 0; round < 200; round++) {
+      for(int i = 0; i < 100; i++) {
+        final int k = rnd.nextInt(10000);
+        ref.add(entry(k, nodes.size()));
+        nodes.add(heap.insert(nodes.size(), k));
+      }
+      // decrease some keys so that the trees contain marked nodes
+      for(int i = 0; i < 20; i++) {
+        final FibNode<Integer, Integer> node = nodes.get(rnd.nextInt(nodes.size()));
+        if(node.isValid()) {
+          final int k = node.getKey();
+          ref.remove(entry(k, node.getValue()));
+          node.decreaseKey(k - rnd.nextInt(1000));
+          ref.add(entry(node.getKey(), node.getValue()));
+        }
+      }
+
+      final List<Integer> out = new ArrayList<>();
+      final int k = rnd.nextInt(150);
+      assertEquals(Math.min(k, ref.size()), heap.extractMin(k, out));
+      for(final int v : out) {
+        assertFalse(nodes.get(v).isValid());
+        assertTrue(ref.remove(entry(nodes.get(v).getKey(), v)));
+      }
+      for(int i = 1; i < out.size(); i++) {
+        assertTrue(nodes.get(out.get(i - 1)).getKey() <= nodes.get(out.get(i)).getKey());
+      }
+      if(!out.isEmpty() && !ref.isEmpty()) {
+        assertTrue(nodes.get(out.get(out.size() - 1)).getKey() <= ref.first() >> 32);
+      }
+      assertEquals(ref.size(), heap.size());
+      checkStatistics(heap);
+    }
+
+    try {
+      // extract a negative number of entries
+      heap.extractMin(-1, new ArrayList<Integer>());
+      fail();
+    } catch(final IllegalArgumentException e) {
+      assertEquals("negative number of entries: -1", e.getMessage());
+    }
+
+    final List<Integer> all = new ArrayList<>();
+    assertEquals(ref.size(), heap.drainTo(all));
+    assertEquals(ref.size(), all.size());
+    assertTrue(heap.isEmpty());
+    checkStatistics(heap);
+  }
+
+  /** Tests extracting all entries up to a bound. */
+  @Test
+  public void extractUpTo() {
+    final Random rnd = new Random(4711);
+    final FibHeap<Integer, Integer> heap = FibHeap.newComparableHeap();
+    final List<FibNode<Integer, Integer>> nodes = new ArrayList<>();
+    final TreeSet<Long> ref = new TreeSet<>();
+    int bound = 0;
+    for(int round = 0; round < 200; round++) {
+      for(int i = 0; i < 100; i++) {
+        final int k = bound + rnd.nextInt(1000);
+        ref.add(entry(k, nodes.size()));
+        nodes.add(heap.insert(nodes.size(), k));
+      }
+
+      bound += rnd.nextInt(600);
+      final List<Integer> out = new ArrayList<>();
+      final int n = heap.extractUpTo(bound, out);
+      final SortedSet<Long> expected = ref.headSet(entry(bound, Integer.MAX_VALUE), true);
+      assertEquals(expected.size(), n);
+      assertEquals(n, out.size());
+      int last = Integer.MIN_VALUE;
+      for(final int v : out) {
+        final int k = nodes.get(v).getKey();
+        assertTrue(last <= k && k <= bound);
+        assertTrue(expected.remove(entry(k, v)));
+        last = k;
+      }
+      assertTrue(heap.isEmpty() || heap.getMin().getKey() > bound);
+      assertEquals(ref.size(), heap.size());
+      checkStatistics(heap);
+    }
+  }
+
   /** Tests the heap's error conditions. */
   @Test
   public void errorConditions() {
@@ -145,9 +682,23 @@ public class FibHeapTest {
     } catch(final IllegalArgumentException e) {
       // expected
     }
+    try {
+      // decrease a key with increaseKey
+      v0.increaseKey(-1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
 
     assertEquals("v0", heap.extractMin());
     assertFalse(v0.isValid());
+    try {
+      // try deleting an invalid node
+      v0.delete();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
     try {
       // try decreasing the key of an invalid node
       v0.decreaseKey(-1);
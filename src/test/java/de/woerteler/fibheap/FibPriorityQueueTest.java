@@ -0,0 +1,184 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.FibHeap.FibNode;
+
+/**
+ * Tests for the {@link FibPriorityQueue queue adapter}.
+ *
+ * @author Leo Woerteler
+ */
+public class FibPriorityQueueTest {
+  /** Checks the queue against {@link PriorityQueue} using random operations. */
+  @Test
+  public void randomOperations() {
+    final Random rng = new Random(42);
+    final FibPriorityQueue<Integer> queue = new FibPriorityQueue<>();
+    final PriorityQueue<Integer> ref = new PriorityQueue<>();
+    for(int i = 0; i < 100000; i++) {
+      final int op = rng.nextInt(10);
+      if(op < 5) {
+        final Integer e = rng.nextInt(1000);
+        assertEquals(ref.offer(e), queue.offer(e));
+      } else if(op < 9) {
+        assertEquals(ref.poll(), queue.poll());
+      } else {
+        final Integer e = rng.nextInt(1000);
+        assertEquals(ref.remove(e), queue.remove(e));
+      }
+      assertEquals(ref.size(), queue.size());
+      assertEquals(ref.peek(), queue.peek());
+    }
+  }
+
+  /** Tests the queue with a custom comparator and a bulk insertion. */
+  @Test
+  public void comparator() {
+    final Comparator<String> comp = Collections.reverseOrder();
+    final FibPriorityQueue<String> queue = new FibPriorityQueue<>(comp);
+    assertSame(comp, queue.comparator());
+    assertTrue(queue.addAll(Arrays.asList("b", "d", "a", "c")));
+    assertEquals("d", queue.element());
+    for(final String s : new String[] { "d", "c", "b", "a" }) {
+      assertEquals(s, queue.remove());
+    }
+    assertNull(queue.poll());
+    assertNull(queue.peek());
+  }
+
+  /** Tests that copying an ordered collection keeps its comparator. */
+  @Test
+  public void inheritComparator() {
+    final Comparator<String> comp = Collections.reverseOrder();
+    final List<String> elems = Arrays.asList("b", "d", "a", "c");
+    final TreeSet<String> set = new TreeSet<>(comp);
+    set.addAll(elems);
+    final PriorityQueue<String> pq = new PriorityQueue<>(4, comp);
+    pq.addAll(elems);
+    final FibPriorityQueue<String> fpq = new FibPriorityQueue<>(comp);
+    fpq.addAll(elems);
+
+    for(final Collection<String> c : Arrays.<Collection<String>>asList(set, pq, fpq)) {
+      final FibPriorityQueue<String> queue = new FibPriorityQueue<>(c);
+      assertSame(comp, queue.comparator());
+      for(final String s : new String[] { "d", "c", "b", "a" }) {
+        assertEquals(s, queue.poll());
+      }
+    }
+
+    // unordered collections and naturally ordered ones use the natural ordering
+    assertNull(new FibPriorityQueue<>(elems).comparator());
+    assertNull(new FibPriorityQueue<>(new TreeSet<>(elems)).comparator());
+    assertEquals("a", new FibPriorityQueue<>(new TreeSet<>(elems)).peek());
+
+    // elements that are not comparable are fine if the comparator is inherited
+    final Comparator<Object> byString = new Comparator<Object>() {
+      @Override
+      public int compare(final Object o1, final Object o2) {
+        return o1.toString().compareTo(o2.toString());
+      }
+    };
+    final TreeSet<Object> objects = new TreeSet<>(byString);
+    objects.add(new StringBuilder("y"));
+    objects.add(new StringBuilder("x"));
+    assertEquals("x", new FibPriorityQueue<>(objects).poll().toString());
+  }
+
+  /** Tests iterating over the queue and removing elements while doing so. */
+  @Test
+  public void iterator() {
+    final FibPriorityQueue<Integer> queue = new FibPriorityQueue<>(
+        Arrays.asList(5, 3, 8, 1, 9, 2, 7));
+    assertEquals(Integer.valueOf(1), queue.poll());
+
+    final List<Integer> seen = new ArrayList<>();
+    for(final Iterator<Integer> iter = queue.iterator(); iter.hasNext();) {
+      final Integer e = iter.next();
+      seen.add(e);
+      if(e % 2 != 0) {
+        iter.remove();
+      }
+    }
+    Collections.sort(seen);
+    assertEquals(Arrays.asList(2, 3, 5, 7, 8, 9), seen);
+    assertEquals(2, queue.size());
+    assertTrue(queue.contains(8));
+    assertFalse(queue.contains(7));
+    assertEquals(Integer.valueOf(2), queue.poll());
+    assertEquals(Integer.valueOf(8), queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  /** Tests decreasing elements through their nodes. */
+  @Test
+  public void offerNode() {
+    final FibPriorityQueue<Integer> queue = new FibPriorityQueue<>();
+    final List<FibNode<Integer, Integer>> nodes = new ArrayList<>();
+    for(int i = 0; i < 10; i++) {
+      nodes.add(queue.offerNode(10 * i));
+    }
+    assertEquals(Integer.valueOf(0), queue.poll());
+    nodes.get(7).decreaseKey(5);
+    nodes.get(4).delete();
+    assertEquals(8, queue.size());
+    for(final int i : new int[] { 5, 10, 20, 30, 50, 60, 80, 90 }) {
+      assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  /** Tests the queue's error conditions. */
+  @Test
+  public void errorConditions() {
+    final FibPriorityQueue<Object> queue = new FibPriorityQueue<>();
+    try {
+      queue.offer(null);
+      fail();
+    } catch(final NullPointerException e) {
+      // expected
+    }
+    try {
+      queue.addAll(Arrays.asList("a", null));
+      fail();
+    } catch(final NullPointerException e) {
+      // expected
+    }
+    assertTrue(queue.isEmpty());
+    try {
+      queue.addAll(queue);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      queue.remove();
+      fail();
+    } catch(final NoSuchElementException e) {
+      // expected
+    }
+
+    queue.add("a");
+    try {
+      // incomparable elements
+      queue.add(1);
+      queue.poll();
+      fail();
+    } catch(final ClassCastException e) {
+      // expected
+    }
+
+    final Iterator<Object> iter = new FibPriorityQueue<>().iterator();
+    assertFalse(iter.hasNext());
+    try {
+      iter.remove();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+}
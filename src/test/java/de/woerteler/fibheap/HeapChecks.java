@@ -0,0 +1,193 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import de.woerteler.fibheap.AddressableHeap.Handle;
+
+/**
+ * Checks shared by the tests of all {@link AddressableHeap} implementations.
+ *
+ * @author Leo Woerteler
+ */
+final class HeapChecks {
+  /** Hidden constructor. */
+  private HeapChecks() {
+  }
+
+  /**
+   * Sorts the given number of shuffled integers using heap-sort.
+   * @param heap empty heap
+   * @param n number of integers
+   */
+  static void sort(final AddressableHeap<Integer, Integer> heap, final int n) {
+    final List<Integer> rand = new ArrayList<>(n);
+    for(int i = 0; i < n; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand, new Random(42));
+    for(final int i : rand) {
+      heap.insert(i, i);
+    }
+    assertEquals(n, heap.size());
+    for(int i = 0; i < n; i++) {
+      assertFalse(heap.isEmpty());
+      assertEquals(Integer.valueOf(i), heap.getMin().getKey());
+      assertEquals(Integer.valueOf(i), heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+    assertNull(heap.getMin());
+  }
+
+  /**
+   * Checks the heap against a {@link TreeSet} using random insertions, extractions, key
+   * decreases and deletions.
+   * @param heap empty heap
+   * @param seed random seed
+   */
+  static void randomOperations(final AddressableHeap<Integer, Integer> heap, final long seed) {
+    final Random rnd = new Random(seed);
+    final List<Handle<Integer, Integer>> nodes = new ArrayList<>();
+    final TreeSet<Long> ref = new TreeSet<>();
+
+    for(int op = 0; op < 100000; op++) {
+      final int r = rnd.nextInt(10);
+      if(r < 4 || ref.isEmpty()) {
+        final int k = rnd.nextInt(1000);
+        ref.add(entry(k, nodes.size()));
+        nodes.add(heap.insert(nodes.size(), k));
+      } else if(r < 7) {
+        // entries with equal keys can be extracted in any order
+        final long first = ref.first();
+        final int v = heap.extractMin();
+        assertEquals(first >> 32, nodes.get(v).getKey().longValue());
+        assertTrue(ref.remove(entry(nodes.get(v).getKey(), v)));
+        assertFalse(nodes.get(v).isValid());
+      } else {
+        final Handle<Integer, Integer> node = nodes.get(rnd.nextInt(nodes.size()));
+        if(!node.isValid()) {
+          continue;
+        }
+        final int k = node.getKey(), v = node.getValue();
+        ref.remove(entry(k, v));
+        if(r < 9) {
+          final int k2 = k - rnd.nextInt(100);
+          node.decreaseKey(k2);
+          ref.add(entry(k2, v));
+        } else {
+          node.delete();
+          assertFalse(node.isValid());
+        }
+      }
+      assertEquals(ref.isEmpty(), heap.isEmpty());
+      assertEquals(ref.size(), heap.size());
+      if(!ref.isEmpty()) {
+        assertEquals(ref.first() >> 32, heap.getMin().getKey().longValue());
+      }
+    }
+  }
+
+  /**
+   * Melds four heaps in a chain and checks that the handles of all donors stay usable.
+   * @param heaps four empty heaps of the same type
+   */
+  static void meld(final List<? extends AddressableHeap<String, Integer>> heaps) {
+    final List<Handle<String, Integer>> nodes = new ArrayList<>();
+    for(int h = 0; h < 4; h++) {
+      final AddressableHeap<String, Integer> heap = heaps.get(h);
+      for(int i = h; i < 40; i += 4) {
+        nodes.add(heap.insert("v" + i, i));
+      }
+      // restructure some of the heaps
+      if(h % 2 == 0) {
+        heap.insert("tmp", -1);
+        assertEquals("tmp", heap.extractMin());
+      }
+    }
+
+    heaps.get(2).meld(heaps.get(3));
+    heaps.get(1).meld(heaps.get(2));
+    heaps.get(0).meld(heaps.get(1));
+    for(int h = 1; h < 4; h++) {
+      assertTrue(heaps.get(h).isEmpty());
+      assertEquals(0, heaps.get(h).size());
+    }
+
+    final AddressableHeap<String, Integer> heap = heaps.get(0);
+    assertEquals(40, heap.size());
+    assertEquals("v0", heap.getMin().getValue());
+    // node from the last heap of the chain
+    nodes.get(nodes.size() - 1).decreaseKey(-1);
+    assertEquals("v39", heap.extractMin());
+    for(int i = 0; i < 39; i++) {
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+
+    // donor heaps stay usable
+    final AddressableHeap<String, Integer> donor = heaps.get(3);
+    donor.insert("w", 1);
+    heap.meld(donor);
+    assertEquals("w", heap.extractMin());
+
+    try {
+      // meld a heap with itself
+      heap.meld(heap);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Checks the error conditions of handles and of an empty heap.
+   * @param heap empty heap
+   */
+  static void errorConditions(final AddressableHeap<String, Integer> heap) {
+    final Handle<String, Integer> v0 = heap.insert("v0", 0);
+    try {
+      // increase a key
+      v0.decreaseKey(1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    assertEquals("v0", heap.extractMin());
+    assertFalse(v0.isValid());
+    try {
+      // decrease the key of an invalid node
+      v0.decreaseKey(-1);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // delete an invalid node
+      v0.delete();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+
+    assertTrue(heap.isEmpty());
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Combines a key and a value into a unique sort key.
+   * @param k key
+   * @param v value
+   * @return sort key
+   */
+  static long entry(final int k, final int v) {
+    return (long) k << 32 | v;
+  }
+}
@@ -0,0 +1,93 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.HollowHeap.HollowItem;
+
+/**
+ * Tests for the {@link HollowHeap hollow heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class HollowHeapTest {
+  /** Tests sorting integers using heap-sort. */
+  @Test
+  public void sortTest() {
+    HeapChecks.sort(HollowHeap.<Integer, Integer>newComparableHeap(), 100000);
+  }
+
+  /** Checks the heap against a reference implementation using random operations. */
+  @Test
+  public void randomOperations() {
+    HeapChecks.randomOperations(HollowHeap.<Integer, Integer>newComparableHeap(), 1337);
+  }
+
+  /** Tests melding heaps. */
+  @Test
+  public void meld() {
+    final List<HollowHeap<String, Integer>> heaps = new ArrayList<>();
+    for(int h = 0; h < 4; h++) {
+      heaps.add(HollowHeap.<String, Integer>newComparableHeap());
+    }
+    HeapChecks.meld(heaps);
+  }
+
+  /** Decreases keys repeatedly, so that hollow nodes with two parents pile up. */
+  @Test
+  public void hollowNodes() {
+    final HollowHeap<Integer, Integer> heap = HollowHeap.newComparableHeap();
+    final List<HollowItem<Integer, Integer>> items = new ArrayList<>();
+    final int n = 1 << 12;
+    for(int i = 0; i < n; i++) {
+      items.add(heap.insert(i, 4 * n + i));
+    }
+    assertEquals(0, heap.extractMin().intValue());
+
+    // every entry except the first is moved twice, the odd ones are deleted lazily
+    for(int i = 1; i < n; i++) {
+      items.get(i).decreaseKey(2 * n + i);
+    }
+    assertEquals(1, heap.extractMin().intValue());
+    for(int i = n - 1; i > 1; i--) {
+      final HollowItem<Integer, Integer> item = items.get(i);
+      item.decreaseKey(item.getKey() - 2 * n);
+      if(i % 2 != 0) {
+        item.delete();
+        assertFalse(item.isValid());
+      }
+    }
+    assertEquals(n / 2 - 1, heap.size());
+    for(int i = 2; i < n; i += 2) {
+      assertEquals(i, heap.getMin().getKey().intValue());
+      assertEquals(i, heap.extractMin().intValue());
+    }
+    assertTrue(heap.isEmpty());
+    assertNull(heap.getMin());
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final HollowHeap<String, Integer> heap = HollowHeap.newComparableHeap();
+    HeapChecks.errorConditions(heap);
+    try {
+      // meld heaps with different orders
+      heap.meld(HollowHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder()));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // meld heaps of different types
+      heap.meld(RankPairingHeap.<String, Integer>newComparableHeap(
+          RankPairingHeap.RankRule.TYPE_1));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
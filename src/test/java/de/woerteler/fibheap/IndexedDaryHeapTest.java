@@ -0,0 +1,66 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for the {@link IndexedDaryHeap indexed d-ary heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class IndexedDaryHeapTest {
+  /** Tested arities. */
+  private static final int[] ARITIES = { 2, 4, 8 };
+
+  /** Tests sorting integers using heap-sort. */
+  @Test
+  public void sortTest() {
+    for(final int d : ARITIES) {
+      HeapChecks.sort(IndexedDaryHeap.<Integer, Integer>newComparableHeap(d), 100000);
+    }
+  }
+
+  /** Checks the heap against a reference implementation using random operations. */
+  @Test
+  public void randomOperations() {
+    for(final int d : ARITIES) {
+      HeapChecks.randomOperations(IndexedDaryHeap.<Integer, Integer>newComparableHeap(d), d);
+    }
+  }
+
+  /** Tests melding heaps. */
+  @Test
+  public void meld() {
+    final List<IndexedDaryHeap<String, Integer>> heaps = new ArrayList<>();
+    for(int h = 0; h < 4; h++) {
+      heaps.add(IndexedDaryHeap.<String, Integer>newComparableHeap(2 << h % 3));
+    }
+    HeapChecks.meld(heaps);
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final IndexedDaryHeap<String, Integer> heap = IndexedDaryHeap.newComparableHeap(4);
+    assertEquals(4, heap.arity());
+    HeapChecks.errorConditions(heap);
+    for(final int d : new int[] { 0, 1, 3, 6 }) {
+      try {
+        IndexedDaryHeap.newComparableHeap(d);
+        fail();
+      } catch(final IllegalArgumentException e) {
+        // expected
+      }
+    }
+    try {
+      // meld heaps with different orders
+      heap.meld(IndexedDaryHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder()));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
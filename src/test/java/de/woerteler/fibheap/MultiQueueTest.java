@@ -0,0 +1,146 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.MultiQueue.Handle;
+
+/**
+ * Tests for the {@link MultiQueue relaxed multi-queue}.
+ *
+ * @author Leo Woerteler
+ */
+public class MultiQueueTest {
+  /** Comparator for integers. */
+  private static final Comparator<Integer> COMP = new Comparator<Integer>() {
+    @Override
+    public int compare(final Integer o1, final Integer o2) {
+      return o1.compareTo(o2);
+    }
+  };
+
+  /** Tests that a single shard behaves like an exact priority queue. */
+  @Test
+  public void singleShard() {
+    final MultiQueue<String, Integer> queue = MultiQueue.newQueue(COMP, 1);
+    final List<Handle<String, Integer>> handles = new ArrayList<>();
+    for(int i = 0; i < 10; i++) {
+      handles.add(queue.insert("v" + i, 10 * i));
+    }
+    assertEquals(10, queue.size());
+    assertEquals("v0", queue.extractMin());
+    assertFalse(handles.get(0).isValid());
+    handles.get(7).decreaseKey(5);
+    assertEquals(Integer.valueOf(5), handles.get(7).getKey());
+    handles.get(4).delete();
+    for(final int i : new int[] { 7, 1, 2, 3, 5, 6, 8, 9 }) {
+      assertEquals("v" + i, queue.extractMin());
+    }
+    assertTrue(queue.isEmpty());
+    assertNull(queue.extractMin());
+  }
+
+  /** Tests that all entries are extracted from many shards and roughly in order. */
+  @Test
+  public void manyShards() {
+    final MultiQueue<Integer, Integer> queue = MultiQueue.newQueue(COMP, 8);
+    final int n = 10000;
+    for(int i = 0; i < n; i++) {
+      queue.insert(i, i);
+    }
+    assertEquals(n, queue.size());
+
+    final boolean[] seen = new boolean[n];
+    long rankError = 0;
+    for(int i = 0; i < n; i++) {
+      final int v = queue.extractMin();
+      assertFalse(seen[v]);
+      seen[v] = true;
+      rankError += Math.abs(v - i);
+    }
+    assertNull(queue.extractMin());
+    assertTrue(queue.isEmpty());
+    // the expected rank error is linear in the number of shards
+    assertTrue(rankError / n < 100);
+  }
+
+  /** Tests that every entry is extracted exactly once with concurrent producers and consumers. */
+  @Test(timeout = 60000)
+  public void concurrent() throws Exception {
+    final int threads = 4, perThread = 25000;
+    final MultiQueue<Integer, Integer> queue = MultiQueue.newQueue(COMP, 2 * threads);
+    final AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for(int t = 0; t < threads; t++) {
+        final int offset = t * perThread;
+        futures.add(pool.submit(new Runnable() {
+          @Override
+          public void run() {
+            final Random rng = new Random(offset);
+            for(int i = 0; i < perThread; i++) {
+              final Handle<Integer, Integer> h = queue.insert(offset + i, offset + i);
+              if(rng.nextBoolean()) {
+                // decrease the key if the entry was not taken by another thread yet
+                try {
+                  h.decreaseKey(-1);
+                } catch(final IllegalStateException e) {
+                  // already extracted
+                }
+              }
+              final Integer v = queue.extractMin();
+              if(v != null) {
+                seen.incrementAndGet(v);
+              }
+            }
+          }
+        }));
+      }
+      for(final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    for(Integer v; (v = queue.extractMin()) != null;) {
+      seen.incrementAndGet(v);
+    }
+    for(int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  /** Tests the queue's error conditions. */
+  @Test
+  public void errorConditions() {
+    try {
+      MultiQueue.newQueue(COMP, 0);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    final MultiQueue<String, Integer> queue = MultiQueue.newQueue(COMP);
+    assertTrue(queue.shards() > 0);
+    final Handle<String, Integer> h = queue.insert("a", 1);
+    try {
+      h.decreaseKey(2);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals("a", queue.extractMin());
+    try {
+      h.delete();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for the {@link OffHeapFibHeap off-heap fibonacci heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class OffHeapFibHeapTest {
+  /** Tests sorting using heap-sort with handles spread over several chunks. */
+  @Test
+  public void sortTest() {
+    try(final OffHeapFibHeap heap = new OffHeapFibHeap()) {
+      final List<Integer> rand = new ArrayList<>(1000);
+      for(int i = 0; i < 100000; i++) {
+        rand.add(i);
+      }
+      Collections.shuffle(rand);
+
+      for(final int i : rand) {
+        heap.insert(3L * i, i / 2.0);
+      }
+
+      for(int i = 0; i < 100000; i++) {
+        assertEquals(3L * i, heap.getMin());
+        assertEquals(i / 2.0, heap.getKey(3L * i), 0);
+        assertEquals(3L * i, heap.extractMin());
+        assertFalse(heap.contains(3L * i));
+      }
+      assertTrue(heap.isEmpty());
+      assertEquals(OffHeapFibHeap.NONE, heap.getMin());
+    }
+  }
+
+  /** Tests decreasing keys so that a cascading cut is triggered. */
+  @Test
+  public void cascadingCut() {
+    try(final OffHeapFibHeap heap = new OffHeapFibHeap()) {
+      for(int i = 0; i < 9; i++) {
+        heap.insert(i, i);
+      }
+
+      assertEquals(0, heap.extractMin());
+      heap.decreaseKey(2, 0);
+      assertEquals(2, heap.extractMin());
+      heap.decreaseKey(6, 0);
+      assertEquals(6, heap.extractMin());
+      heap.decreaseKey(8, 0);
+      assertEquals(8, heap.extractMin());
+
+      heap.decreaseKey(7, 0);
+
+      for(int i : new int[] {7, 1, 3, 4, 5}) {
+        assertEquals(i, heap.extractMin());
+      }
+      assertTrue(heap.isEmpty());
+    }
+  }
+
+  /** Tests that sparse and large handles only allocate the chunks that they use. */
+  @Test
+  public void sparseHandles() {
+    final long before = directMemory();
+    try(final OffHeapFibHeap heap = new OffHeapFibHeap()) {
+      final long[] handles = { 1L << 40, 0, OffHeapFibHeap.MAX_HANDLE - 1, 1L << 30, 12345 };
+      for(int i = 0; i < handles.length; i++) {
+        heap.insert(handles[i], -i);
+      }
+      assertFalse(heap.contains((1L << 40) + 1));
+      assertFalse(heap.contains(1L << 39));
+      assertFalse(heap.contains(OffHeapFibHeap.MAX_HANDLE));
+      assertTrue(directMemory() - before < 32L << 20);
+      for(int i = handles.length; --i >= 0;) {
+        assertEquals(handles[i], heap.extractMin());
+      }
+      assertTrue(heap.isEmpty());
+    }
+    assertTrue(directMemory() - before < 1L << 20);
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final OffHeapFibHeap heap = new OffHeapFibHeap();
+    heap.insert(0, 0);
+    try {
+      // insert a handle twice
+      heap.insert(0, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // increase a key
+      heap.decreaseKey(0, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    assertEquals(0, heap.extractMin());
+    try {
+      // try decreasing the key of an invalid handle
+      heap.decreaseKey(0, -1);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+
+    try {
+      // insert a handle that is out of range
+      heap.insert(OffHeapFibHeap.MAX_HANDLE, 1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    heap.insert(1, 1);
+    heap.close();
+    heap.close();
+    try {
+      // use a closed heap
+      heap.insert(2, 1);
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+    try {
+      // check if a closed heap is empty
+      heap.isEmpty();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+    try {
+      // get the minimum of a closed heap
+      heap.getMin();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from a closed heap
+      heap.extractMin();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Returns the number of bytes currently allocated for direct buffers.
+   * @return number of bytes
+   */
+  private static long directMemory() {
+    for(final BufferPoolMXBean pool
+        : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      if(pool.getName().equals("direct")) {
+        return pool.getMemoryUsed();
+      }
+    }
+    throw new AssertionError("no direct buffer pool");
+  }
+}
@@ -0,0 +1,63 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for the {@link PairingHeap pairing heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class PairingHeapTest {
+  /** Tests sorting integers using heap-sort. */
+  @Test
+  public void sortTest() {
+    HeapChecks.sort(PairingHeap.<Integer, Integer>newComparableHeap(), 100000);
+  }
+
+  /** Checks the heap against a reference implementation using random operations. */
+  @Test
+  public void randomOperations() {
+    HeapChecks.randomOperations(PairingHeap.<Integer, Integer>newComparableHeap(), 1337);
+  }
+
+  /** Tests melding heaps. */
+  @Test
+  public void meld() {
+    final List<PairingHeap<String, Integer>> heaps = new ArrayList<>();
+    for(int h = 0; h < 4; h++) {
+      heaps.add(PairingHeap.<String, Integer>newComparableHeap());
+    }
+    HeapChecks.meld(heaps);
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final PairingHeap<String, Integer> heap = PairingHeap.newComparableHeap();
+    HeapChecks.errorConditions(heap);
+    try {
+      // meld heaps with different orders
+      heap.meld(PairingHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder()));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // meld heaps of different types
+      heap.meld(FibHeap.<String, Integer>newComparableHeap());
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      FibHeap.<String, Integer>newComparableHeap().meld((AddressableHeap<String, Integer>) heap);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.IntFibHeap.IntFibNode;
+import de.woerteler.fibheap.LongFibHeap.LongFibNode;
+
+/**
+ * Tests for the fibonacci heaps with primitive {@code long} and {@code int} keys.
+ *
+ * @author Leo Woerteler
+ */
+public class PrimitiveFibHeapTest {
+  /** Tests sorting longs using heap-sort. */
+  @Test
+  public void sortLong() {
+    final LongFibHeap<String> heap = LongFibHeap.newHeap();
+    for(final int i : shuffled(100000)) {
+      heap.insert("v" + i, Long.MIN_VALUE + i);
+    }
+
+    for(int i = 0; i < 100000; i++) {
+      assertEquals(Long.MIN_VALUE + i, heap.getMin().getKeyAsLong());
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Tests sorting ints using heap-sort. */
+  @Test
+  public void sortInt() {
+    final IntFibHeap<String> heap = IntFibHeap.newHeap();
+    for(final int i : shuffled(100000)) {
+      heap.insert("v" + i, i);
+    }
+
+    for(int i = 0; i < 100000; i++) {
+      assertEquals(i, heap.getMin().getKeyAsInt());
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Tests decreasing keys so that a cascading cut is triggered. */
+  @Test
+  public void cascadingCut() {
+    final LongFibHeap<String> longs = LongFibHeap.newHeap();
+    final IntFibHeap<String> ints = IntFibHeap.newHeap();
+    final List<LongFibNode<String>> longNodes = new ArrayList<>();
+    final List<IntFibNode<String>> intNodes = new ArrayList<>();
+    for(int i = 0; i < 9; i++) {
+      longNodes.add(longs.insert("v" + i, i));
+      intNodes.add(ints.insert("v" + i, i));
+    }
+
+    assertEquals("v0", longs.extractMin());
+    assertEquals("v0", ints.extractMin());
+    for(final int i : new int[] { 2, 6, 8 }) {
+      longNodes.get(i).decreaseKey(0);
+      intNodes.get(i).decreaseKey(0);
+      assertEquals("v" + i, longs.extractMin());
+      assertEquals("v" + i, ints.extractMin());
+    }
+
+    longNodes.get(7).decreaseKey(Long.MIN_VALUE);
+    intNodes.get(7).decreaseKey(Integer.MIN_VALUE);
+
+    for(int i : new int[] {7, 1, 3, 4, 5}) {
+      assertEquals("v" + i, longs.extractMin());
+      assertEquals("v" + i, ints.extractMin());
+    }
+    assertTrue(longs.isEmpty());
+    assertTrue(ints.isEmpty());
+  }
+
+  /** Tests deleting nodes and increasing keys. */
+  @Test
+  public void deleteAndIncrease() {
+    final IntFibHeap<String> heap = IntFibHeap.newHeap();
+    final List<IntFibNode<String>> nodes = new ArrayList<>();
+    for(int i = 0; i < 9; i++) {
+      nodes.add(heap.insert("v" + i, i));
+    }
+    assertEquals("v0", heap.extractMin());
+
+    nodes.get(6).delete();
+    nodes.get(1).delete();
+    nodes.get(3).increaseKey(Integer.MAX_VALUE);
+    nodes.get(2).increaseKey(7);
+
+    for(int i : new int[] {4, 5, 2, 7, 8, 3}) {
+      assertEquals("v" + i, heap.extractMin());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Tests the heaps' error conditions. */
+  @Test
+  public void errorConditions() {
+    final IntFibHeap<String> heap = IntFibHeap.newHeap();
+    final IntFibNode<String> v0 = heap.insert("v0", 0);
+    try {
+      // increase a key
+      v0.decreaseKey(1);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+
+    assertEquals("v0", heap.extractMin());
+    assertFalse(v0.isValid());
+    try {
+      // try decreasing the key of an invalid node
+      v0.decreaseKey(-1);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from an empty heap
+      LongFibHeap.newHeap().extractMin();
+      fail();
+    } catch(IllegalStateException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Returns the integers from {@code 0} to {@code n - 1} in random order.
+   * @param n number of integers
+   * @return shuffled list
+   */
+  private static List<Integer> shuffled(final int n) {
+    final List<Integer> rand = new ArrayList<>(n);
+    for(int i = 0; i < n; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand);
+    return rand;
+  }
+}
@@ -0,0 +1,130 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.RadixHeap.RadixNode;
+
+/**
+ * Tests for the {@link RadixHeap radix heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class RadixHeapTest {
+  /** Tests sorting keys from the whole {@code long} range using heap-sort. */
+  @Test
+  public void sortTest() {
+    final Random rnd = new Random(42);
+    final long[] keys = new long[100000];
+    final RadixHeap<Integer> heap = RadixHeap.newHeap();
+    for(int i = 0; i < keys.length; i++) {
+      keys[i] = i < 3 ? new long[] { Long.MIN_VALUE, Long.MAX_VALUE, 0 }[i] : rnd.nextLong();
+      heap.insert(i, keys[i]);
+    }
+    final long[] sorted = keys.clone();
+    Arrays.sort(sorted);
+
+    for(final long k : sorted) {
+      assertEquals(k, heap.getMin().getKeyAsLong());
+      assertEquals(k, keys[heap.extractMin()]);
+      assertEquals(k, heap.lastMin());
+    }
+    assertTrue(heap.isEmpty());
+    assertNull(heap.getMin());
+  }
+
+  /** Checks the heap against a {@link TreeSet} using random monotone operations. */
+  @Test
+  public void randomOperations() {
+    final Random rnd = new Random(1337);
+    final RadixHeap<Integer> heap = RadixHeap.newHeap();
+    final List<RadixNode<Integer>> nodes = new ArrayList<>();
+    final TreeSet<Long> ref = new TreeSet<>();
+    long last = 0;
+
+    for(int op = 0; op < 100000; op++) {
+      final int r = rnd.nextInt(10);
+      if(r < 4 || ref.isEmpty()) {
+        final int k = (int) last + rnd.nextInt(1000);
+        ref.add(HeapChecks.entry(k, nodes.size()));
+        nodes.add(heap.insert(nodes.size(), k));
+      } else if(r < 7) {
+        // entries with equal keys can be extracted in any order
+        final long first = ref.first();
+        final int v = heap.extractMin();
+        final RadixNode<Integer> node = nodes.get(v);
+        assertEquals(first >> 32, node.getKeyAsLong());
+        assertTrue(ref.remove(HeapChecks.entry((int) node.getKeyAsLong(), v)));
+        assertFalse(node.isValid());
+        last = node.getKeyAsLong();
+      } else {
+        final RadixNode<Integer> node = nodes.get(rnd.nextInt(nodes.size()));
+        if(!node.isValid()) {
+          continue;
+        }
+        final int k = (int) node.getKeyAsLong(), v = node.getValue();
+        ref.remove(HeapChecks.entry(k, v));
+        if(r < 9) {
+          final int k2 = (int) Math.max(last, k - rnd.nextInt(100));
+          node.decreaseKey(k2);
+          ref.add(HeapChecks.entry(k2, v));
+        } else {
+          node.delete();
+        }
+      }
+      assertEquals(ref.size(), heap.size());
+      if(!ref.isEmpty()) {
+        assertEquals(ref.first() >> 32, heap.getMin().getKeyAsLong());
+      }
+    }
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final RadixHeap<String> heap = RadixHeap.newHeap();
+    final RadixNode<String> v5 = heap.insert("v5", 5);
+    heap.insert("v3", 3);
+    assertEquals("v3", heap.extractMin());
+    try {
+      // insert a key below the last minimum
+      heap.insert("v2", 2);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // decrease a key below the last minimum
+      v5.decreaseKey(2);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // increase a key
+      v5.decreaseKey(6);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    v5.decreaseKey(3);
+    assertEquals("v5", heap.extractMin());
+    try {
+      // decrease the key of an invalid node
+      v5.decreaseKey(3);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+}
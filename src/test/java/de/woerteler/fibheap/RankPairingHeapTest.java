@@ -0,0 +1,102 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.RankPairingHeap.RankNode;
+import de.woerteler.fibheap.RankPairingHeap.RankRule;
+
+/**
+ * Tests for the {@link RankPairingHeap rank-pairing heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class RankPairingHeapTest {
+  /** Tests sorting integers using heap-sort. */
+  @Test
+  public void sortTest() {
+    for(final RankRule rule : RankRule.values()) {
+      HeapChecks.sort(RankPairingHeap.<Integer, Integer>newComparableHeap(rule), 100000);
+    }
+  }
+
+  /** Checks the heap against a reference implementation using random operations. */
+  @Test
+  public void randomOperations() {
+    for(final RankRule rule : RankRule.values()) {
+      HeapChecks.randomOperations(RankPairingHeap.<Integer, Integer>newComparableHeap(rule), 1337);
+    }
+  }
+
+  /** Tests melding heaps. */
+  @Test
+  public void meld() {
+    for(final RankRule rule : RankRule.values()) {
+      final List<RankPairingHeap<String, Integer>> heaps = new ArrayList<>();
+      for(int h = 0; h < 4; h++) {
+        heaps.add(RankPairingHeap.<String, Integer>newComparableHeap(rule));
+      }
+      HeapChecks.meld(heaps);
+    }
+  }
+
+  /** Repeatedly cuts nodes deep inside the trees, which lowers the ranks on their paths. */
+  @Test
+  public void deepCuts() {
+    for(final RankRule rule : RankRule.values()) {
+      final RankPairingHeap<Integer, Integer> heap = RankPairingHeap.newComparableHeap(rule);
+      assertSame(rule, heap.rankRule());
+      final List<RankNode<Integer, Integer>> nodes = new ArrayList<>();
+      final int n = 1 << 12;
+      for(int i = 0; i < n; i++) {
+        nodes.add(heap.insert(i, 2 * i));
+      }
+      assertEquals(0, heap.extractMin().intValue());
+
+      // decrease the largest keys first, they are at the bottom of the trees
+      for(int i = n - 1; i > 0; i -= 2) {
+        nodes.get(i).decreaseKey(-i);
+      }
+      for(int i = n - 1; i > 0; i -= 2) {
+        assertEquals(i, heap.extractMin().intValue());
+      }
+      for(int i = 2; i < n; i += 2) {
+        assertEquals(i, heap.extractMin().intValue());
+      }
+      assertTrue(heap.isEmpty());
+      assertEquals(0, heap.size());
+    }
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    final RankPairingHeap<String, Integer> heap =
+        RankPairingHeap.newComparableHeap(RankRule.TYPE_2);
+    HeapChecks.errorConditions(heap);
+    try {
+      // meld heaps with different orders
+      heap.meld(RankPairingHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder()));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // meld heaps of different types
+      heap.meld(PairingHeap.<String, Integer>newComparableHeap());
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // no rank rule
+      RankPairingHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder(), null);
+      fail();
+    } catch(final NullPointerException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.*;
+
+import de.woerteler.fibheap.SkipListQueue.Handle;
+
+/**
+ * Tests for the {@link SkipListQueue lock-free skiplist queue}.
+ *
+ * @author Leo Woerteler
+ */
+public class SkipListQueueTest {
+  /** Comparator for integers. */
+  private static final Comparator<Integer> COMP = new Comparator<Integer>() {
+    @Override
+    public int compare(final Integer o1, final Integer o2) {
+      return o1.compareTo(o2);
+    }
+  };
+
+  /** Tests sorting integers using heap-sort. */
+  @Test
+  public void sortTest() {
+    final SkipListQueue<Integer, Integer> queue = SkipListQueue.newQueue(COMP);
+    final List<Integer> rand = new ArrayList<>();
+    for(int i = 0; i < 100000; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand, new Random(42));
+    for(final int i : rand) {
+      queue.insert(i, i);
+    }
+    assertEquals(100000, queue.size());
+    for(int i = 0; i < 100000; i++) {
+      assertEquals(Integer.valueOf(i), queue.extractMin());
+    }
+    assertTrue(queue.isEmpty());
+    assertNull(queue.extractMin());
+  }
+
+  /** Checks the queue against a {@link TreeMap} using random operations in a single thread. */
+  @Test
+  public void randomOperations() {
+    final Random rng = new Random(42);
+    final SkipListQueue<Integer, Integer> queue = SkipListQueue.newQueue(COMP);
+    final TreeMap<Long, Handle<Integer, Integer>> ref = new TreeMap<>();
+    final Map<Integer, Long> entries = new HashMap<>();
+    for(int i = 0; i < 100000; i++) {
+      final int op = rng.nextInt(10);
+      if(op < 4) {
+        final int k = rng.nextInt(10000);
+        ref.put(entry(k, i), queue.insert(i, k));
+        entries.put(i, entry(k, i));
+      } else if(op < 7) {
+        final Integer v = queue.extractMin();
+        if(ref.isEmpty()) {
+          assertNull(v);
+        } else {
+          // entries with the same key can be extracted in any order
+          final Long e = entries.remove(v);
+          assertEquals(ref.firstKey() >> 32, e >> 32);
+          assertFalse(ref.remove(e).isValid());
+        }
+      } else if(!ref.isEmpty()) {
+        final Long e = ref.ceilingKey(entry(rng.nextInt(10000), 0));
+        if(e == null) {
+          continue;
+        }
+        final Handle<Integer, Integer> h = ref.remove(e);
+        entries.remove(h.getValue());
+        if(op < 9) {
+          final int k = (int) (e >> 32) - rng.nextInt(100);
+          h.decreaseKey(k);
+          assertEquals(Integer.valueOf(k), h.getKey());
+          ref.put(entry(k, h.getValue()), h);
+          entries.put(h.getValue(), entry(k, h.getValue()));
+        } else {
+          h.delete();
+          assertFalse(h.isValid());
+        }
+      }
+      assertEquals(ref.isEmpty(), queue.isEmpty());
+    }
+    assertEquals(ref.size(), queue.size());
+  }
+
+  /** Tests that every entry is extracted exactly once with concurrent producers and consumers. */
+  @Test(timeout = 60000)
+  public void concurrent() throws Exception {
+    final int threads = 4, perThread = 25000;
+    final SkipListQueue<Integer, Integer> queue = SkipListQueue.newQueue(COMP);
+    final AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for(int t = 0; t < threads; t++) {
+        final int offset = t * perThread;
+        futures.add(pool.submit(new Runnable() {
+          @Override
+          public void run() {
+            final Random rng = new Random(offset);
+            for(int i = 0; i < perThread; i++) {
+              final Handle<Integer, Integer> h = queue.insert(offset + i, rng.nextInt(1000));
+              if(rng.nextBoolean()) {
+                // decrease the key if the entry was not taken by another thread yet
+                try {
+                  h.decreaseKey(-1);
+                } catch(final IllegalStateException e) {
+                  // already extracted
+                }
+              }
+              final Integer v = queue.extractMin();
+              if(v != null) {
+                seen.incrementAndGet(v);
+              }
+            }
+          }
+        }));
+      }
+      for(final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    for(Integer v; (v = queue.extractMin()) != null;) {
+      seen.incrementAndGet(v);
+    }
+    for(int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  /**
+   * Tests that an entry whose key is being decreased is never missing from the queue, so that
+   * the single consumer cannot see an empty queue while entries are left.
+   */
+  @Test(timeout = 60000)
+  public void concurrentDecreaseKey() throws Exception {
+    final int rounds = 20000, size = 2, decreasers = 3;
+    final SkipListQueue<Integer, Integer> queue = SkipListQueue.newQueue(COMP);
+    final AtomicReferenceArray<Handle<Integer, Integer>> handles =
+        new AtomicReferenceArray<>(size);
+    final AtomicIntegerArray seen = new AtomicIntegerArray(rounds * size);
+    final AtomicBoolean done = new AtomicBoolean();
+    final ExecutorService pool = Executors.newFixedThreadPool(decreasers + 1);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for(int t = 0; t < decreasers; t++) {
+        final int seed = t;
+        futures.add(pool.submit(new Runnable() {
+          @Override
+          public void run() {
+            final Random rng = new Random(seed);
+            while(!done.get()) {
+              final Handle<Integer, Integer> h = handles.get(rng.nextInt(size));
+              try {
+                if(h != null) {
+                  h.decreaseKey(h.getKey() - rng.nextInt(100));
+                }
+              } catch(final IllegalStateException | IllegalArgumentException e) {
+                // extracted or decreased further by another thread
+              }
+            }
+          }
+        }));
+      }
+      futures.add(pool.submit(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            final Random rng = new Random(42);
+            for(int r = 0; r < rounds; r++) {
+              for(int i = 0; i < size; i++) {
+                handles.set(i, queue.insert(r * size + i, rng.nextInt(1000)));
+              }
+              for(int i = 0; i < size; i++) {
+                final Integer v = queue.extractMin();
+                assertNotNull("queue seemed empty in round " + r, v);
+                seen.incrementAndGet(v);
+              }
+            }
+          } finally {
+            done.set(true);
+          }
+        }
+      }));
+      for(final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertNull(queue.extractMin());
+    for(int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  /** Tests the queue's error conditions. */
+  @Test
+  public void errorConditions() {
+    final SkipListQueue<String, Integer> queue = SkipListQueue.newQueue(COMP);
+    final Handle<String, Integer> h = queue.insert("a", 1);
+    try {
+      h.decreaseKey(2);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals("a", queue.extractMin());
+    try {
+      h.decreaseKey(0);
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+    try {
+      h.delete();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Combines a key and a value into a unique sort key.
+   * @param k key
+   * @param v value
+   * @return sort key
+   */
+  private static long entry(final int k, final int v) {
+    return (long) k << 32 | v & 0xFFFFFFFFL;
+  }
+}
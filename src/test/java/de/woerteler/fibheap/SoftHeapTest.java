@@ -0,0 +1,151 @@
+package de.woerteler.fibheap;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for the {@link SoftHeap soft heap}.
+ *
+ * @author Leo Woerteler
+ */
+public class SoftHeapTest {
+  /** Tests that a soft heap with a tiny error rate sorts exactly. */
+  @Test
+  public void sortTest() {
+    final SoftHeap<String, Integer> heap = SoftHeap.newComparableHeap(1e-9);
+    final List<Integer> rand = new ArrayList<>();
+    for(int i = 0; i < 100000; i++) {
+      rand.add(i);
+    }
+    Collections.shuffle(rand, new Random(42));
+    for(final int i : rand) {
+      heap.insert("v" + i, i);
+    }
+
+    for(int i = 0; i < 100000; i++) {
+      assertEquals(100000 - i, heap.size());
+      assertEquals("v" + i, heap.extractMin());
+      assertEquals(i, (int) heap.lastKey());
+      assertFalse(heap.lastCorrupted());
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  /** Checks the corruption bound and the extracted entries using random operations. */
+  @Test
+  public void randomOperations() {
+    for(final double eps : new double[] { 1, 0.5, 0.1, 0.01 }) {
+      final Random rnd = new Random(1337);
+      final SoftHeap<Integer, Integer> heap = SoftHeap.newComparableHeap(eps);
+      final Map<Integer, Integer> contained = new HashMap<>();
+      int inserts = 0, lastExact = Integer.MIN_VALUE;
+
+      for(int op = 0; op < 100000; op++) {
+        if(rnd.nextInt(3) < 2 || heap.isEmpty()) {
+          final int k = rnd.nextInt(10000);
+          contained.put(inserts, k);
+          heap.insert(inserts++, k);
+          lastExact = Math.min(lastExact, k);
+        } else {
+          final int v = heap.extractMin();
+          final Integer k = contained.remove(v);
+          assertNotNull(k);
+          assertEquals(k, heap.lastKey());
+          if(!heap.lastCorrupted()) {
+            // uncorrupted entries are not smaller than earlier extracted ones
+            assertTrue(lastExact <= k);
+            lastExact = k;
+          }
+        }
+        assertEquals(contained.size(), heap.size());
+        if(op % 1000 == 0) {
+          assertTrue(heap.corrupted().size() <= eps * inserts);
+        }
+      }
+      while(!heap.isEmpty()) {
+        assertNotNull(contained.remove(heap.extractMin()));
+      }
+      assertTrue(contained.isEmpty());
+    }
+  }
+
+  /** Tests melding soft heaps of different sizes. */
+  @Test
+  public void meld() {
+    final List<SoftHeap<Integer, Integer>> heaps = new ArrayList<>();
+    for(int i = 0; i < 4; i++) {
+      heaps.add(SoftHeap.<Integer, Integer>newComparableHeap(1e-9));
+    }
+    final Random rnd = new Random(123);
+    final int[] sizes = { 0, 1, 1000, 37 };
+    final List<Integer> keys = new ArrayList<>();
+    for(int i = 0; i < sizes.length; i++) {
+      for(int j = 0; j < sizes[i]; j++) {
+        final int k = rnd.nextInt(100000);
+        keys.add(k);
+        heaps.get(i).insert(k, k);
+      }
+    }
+    final SoftHeap<Integer, Integer> heap = heaps.get(1);
+    heap.meld(heaps.get(0));
+    heap.meld(heaps.get(2));
+    heaps.get(3).meld(heap);
+    assertTrue(heap.isEmpty());
+    assertEquals(0, heap.size());
+    assertEquals(keys.size(), heaps.get(3).size());
+
+    Collections.sort(keys);
+    for(final int k : keys) {
+      assertEquals(k, (int) heaps.get(3).extractMin());
+    }
+    assertTrue(heaps.get(3).isEmpty());
+  }
+
+  /** Tests the heap's error conditions. */
+  @Test
+  public void errorConditions() {
+    for(final double eps : new double[] { 0, -1, 1.5, Double.NaN }) {
+      try {
+        // invalid error rate
+        SoftHeap.newComparableHeap(eps);
+        fail();
+      } catch(final IllegalArgumentException e) {
+        // expected
+      }
+    }
+
+    final SoftHeap<String, Integer> heap = SoftHeap.newComparableHeap(0.5);
+    assertEquals(0.5, heap.errorRate(), 0);
+    try {
+      // meld a heap with itself
+      heap.meld(heap);
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // meld heaps with different error rates
+      heap.meld(SoftHeap.<String, Integer>newComparableHeap(0.25));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // meld heaps with different comparators
+      heap.meld(SoftHeap.<String, Integer>newHeap(Collections.<Integer>reverseOrder(), 0.5));
+      fail();
+    } catch(final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      // extract from an empty heap
+      heap.extractMin();
+      fail();
+    } catch(final IllegalStateException e) {
+      // expected
+    }
+  }
+}